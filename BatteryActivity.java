@@ -6,13 +6,34 @@ import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 
 public class BatteryActivity extends AppCompatActivity {
+    private SamplingEngine engine;
+    // Battery values arrive by broadcast; refresh only when one of them changed
+    private final BatteryMonitor.Listener batteryListener =
+            m -> engine.request(StatsProvider::collectBatteryDetails, this::showBatteryDetails);
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_battery);
 
-        StatsProvider.BatteryDetails d = new StatsProvider(this).collectBatteryDetails();
+        engine = SamplingEngine.get(this);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Registering starts the monitor, which is seeded from the sticky broadcast before this request runs
+        engine.addBatteryListener(batteryListener);
+        engine.request(StatsProvider::collectBatteryDetails, this::showBatteryDetails);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        engine.removeBatteryListener(batteryListener);
+    }
 
+    private void showBatteryDetails(StatsProvider.BatteryDetails d) {
         ((TextView) findViewById(R.id.rowStatus)).setText(d.status);
         ((TextView) findViewById(R.id.rowBatteryLevel)).setText(d.levelWithCapacity);
         ((TextView) findViewById(R.id.rowVoltage)).setText(d.voltage);
@@ -0,0 +1,245 @@
+package com.example.resourcemapperapp;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.BatteryManager;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Battery state without per-read Binder calls. One long-lived ACTION_BATTERY_CHANGED receiver
+ * (registered on the caller's looper, normally the sampler thread) copies the sticky extras
+ * into primitive fields; the BatteryManager counters (CURRENT_NOW, CHARGE_COUNTER,
+ * ENERGY_COUNTER) are polled on their own cadence on the same looper. Getters only read
+ * fields, so callers on the UI refresh path pay nothing. Listeners are told when a value
+ * actually changed, not on every broadcast or poll.
+ */
+public class BatteryMonitor {
+
+    public interface Listener {
+        /** Called on the monitor's looper after at least one value changed. */
+        void onBatteryChanged(BatteryMonitor monitor);
+    }
+
+    public static final long DEFAULT_COUNTER_INTERVAL_MS = 5_000L;
+
+    private final Context context;
+    private final BatteryManager batteryManager;
+    private final Handler handler;
+    private final long counterIntervalMs;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private boolean started;
+
+    // Sticky ACTION_BATTERY_CHANGED extras; -1 / MIN_VALUE / null until the first broadcast
+    private volatile int level = -1;
+    private volatile int scale = -1;
+    private volatile int status = -1;
+    private volatile int health = -1;
+    private volatile int plugged = -1;
+    private volatile int voltageMv = -1;
+    private volatile int temperatureDeciC = Integer.MIN_VALUE;
+    private volatile String technology;
+
+    // BatteryManager counters; Long.MIN_VALUE when unsupported
+    private volatile long currentUa = Long.MIN_VALUE;
+    private volatile long chargeCounterUah = Long.MIN_VALUE;
+    private volatile long energyCounterNwh = Long.MIN_VALUE;
+
+    private volatile long lastChangeMs = -1L;
+
+    private final BroadcastReceiver receiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context c, Intent intent) {
+            if (applySticky(intent)) changed();
+        }
+    };
+
+    private final Runnable pollCounters = new Runnable() {
+        @Override
+        public void run() {
+            if (readCounters()) changed();
+            handler.postDelayed(this, counterIntervalMs);
+        }
+    };
+
+    public BatteryMonitor(Context context, Looper looper) {
+        this(context, looper, DEFAULT_COUNTER_INTERVAL_MS);
+    }
+
+    public BatteryMonitor(Context context, Looper looper, long counterIntervalMs) {
+        this.context = context.getApplicationContext();
+        this.batteryManager = (BatteryManager) this.context.getSystemService(Context.BATTERY_SERVICE);
+        this.handler = new Handler(looper);
+        this.counterIntervalMs = Math.max(250L, counterIntervalMs);
+    }
+
+    /** Registers the receiver and starts counter polling; the sticky broadcast arrives at once. */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        Intent sticky = context.registerReceiver(receiver,
+                new IntentFilter(Intent.ACTION_BATTERY_CHANGED), null, handler);
+        // Seed from the returned sticky intent so readers see values before the first callback
+        if (sticky != null && applySticky(sticky)) lastChangeMs = System.currentTimeMillis();
+        handler.post(pollCounters);
+    }
+
+    public synchronized void stop() {
+        if (!started) return;
+        started = false;
+        handler.removeCallbacks(pollCounters);
+        try {
+            context.unregisterReceiver(receiver);
+        } catch (IllegalArgumentException e) {
+            // Already unregistered
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Level as a percentage of scale, or -1 if unknown. */
+    public float getLevelPercent() {
+        int l = level;
+        int s = scale;
+        return l >= 0 && s > 0 ? l * 100f / s : -1f;
+    }
+
+    /** BatteryManager.BATTERY_STATUS_*, or -1. */
+    public int getStatus() {
+        return status;
+    }
+
+    /** BatteryManager.BATTERY_HEALTH_*, or -1. */
+    public int getHealth() {
+        return health;
+    }
+
+    /** BatteryManager.BATTERY_PLUGGED_* bits, 0 on battery, -1 if unknown. */
+    public int getPlugged() {
+        return plugged;
+    }
+
+    public int getVoltageMv() {
+        return voltageMv;
+    }
+
+    public float getTemperatureC() {
+        int t = temperatureDeciC;
+        return t != Integer.MIN_VALUE ? t / 10f : Float.NaN;
+    }
+
+    public String getTechnology() {
+        return technology;
+    }
+
+    /** Instantaneous current in microamperes (sign convention is vendor-specific), or Long.MIN_VALUE. */
+    public long getCurrentUa() {
+        return currentUa;
+    }
+
+    /** Remaining charge in microampere-hours, or Long.MIN_VALUE. */
+    public long getChargeCounterUah() {
+        return chargeCounterUah;
+    }
+
+    /** Remaining energy in nanowatt-hours, or Long.MIN_VALUE (most devices do not report it). */
+    public long getEnergyCounterNwh() {
+        return energyCounterNwh;
+    }
+
+    /** Wall-clock time of the last change to any value, or -1 before the first reading. */
+    public long getLastChangeMs() {
+        return lastChangeMs;
+    }
+
+    /** Copies the extras; true if any of them differs from the cached value. */
+    private boolean applySticky(Intent intent) {
+        boolean changed = false;
+        int v;
+        if ((v = intent.getIntExtra(BatteryManager.EXTRA_LEVEL, -1)) != level) {
+            level = v;
+            changed = true;
+        }
+        if ((v = intent.getIntExtra(BatteryManager.EXTRA_SCALE, -1)) != scale) {
+            scale = v;
+            changed = true;
+        }
+        if ((v = intent.getIntExtra(BatteryManager.EXTRA_STATUS, -1)) != status) {
+            status = v;
+            changed = true;
+        }
+        if ((v = intent.getIntExtra(BatteryManager.EXTRA_HEALTH, -1)) != health) {
+            health = v;
+            changed = true;
+        }
+        if ((v = intent.getIntExtra(BatteryManager.EXTRA_PLUGGED, -1)) != plugged) {
+            plugged = v;
+            changed = true;
+        }
+        if ((v = intent.getIntExtra(BatteryManager.EXTRA_VOLTAGE, -1)) != voltageMv) {
+            voltageMv = v;
+            changed = true;
+        }
+        if ((v = intent.getIntExtra(BatteryManager.EXTRA_TEMPERATURE, Integer.MIN_VALUE)) != temperatureDeciC) {
+            temperatureDeciC = v;
+            changed = true;
+        }
+        // Technology never changes after the first broadcast; skip the String compare afterwards
+        if (technology == null) {
+            technology = intent.getStringExtra(BatteryManager.EXTRA_TECHNOLOGY);
+        }
+        return changed;
+    }
+
+    private boolean readCounters() {
+        if (batteryManager == null) return false;
+        boolean changed = false;
+        long v = counter(BatteryManager.BATTERY_PROPERTY_CURRENT_NOW, true);
+        if (v != currentUa) {
+            currentUa = v;
+            changed = true;
+        }
+        v = counter(BatteryManager.BATTERY_PROPERTY_CHARGE_COUNTER, false);
+        if (v != chargeCounterUah) {
+            chargeCounterUah = v;
+            changed = true;
+        }
+        v = counter(BatteryManager.BATTERY_PROPERTY_ENERGY_COUNTER, false);
+        if (v != energyCounterNwh) {
+            energyCounterNwh = v;
+            changed = true;
+        }
+        return changed;
+    }
+
+    /** One BatteryManager property; unsupported ones report MIN_VALUE (or 0 on some builds). */
+    private long counter(int property, boolean intProperty) {
+        try {
+            long v = intProperty ? batteryManager.getIntProperty(property) : batteryManager.getLongProperty(property);
+            if (v == Integer.MIN_VALUE || v == Long.MIN_VALUE) return Long.MIN_VALUE;
+            // 0 means "unsupported" for the counters, but is a valid instantaneous current
+            return v == 0 && !intProperty ? Long.MIN_VALUE : v;
+        } catch (RuntimeException e) {
+            // Property not supported by this battery HAL
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private void changed() {
+        lastChangeMs = System.currentTimeMillis();
+        for (Listener listener : listeners) {
+            listener.onBatteryChanged(this);
+        }
+    }
+}
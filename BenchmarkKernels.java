@@ -0,0 +1,89 @@
+package com.example.resourcemapperapp;
+
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The CPU kernels behind {@link BenchmarkProvider}'s scores, single-thread and the
+ * multi-threaded round built from them. Kept free of Android types so {@link PerfHarness}
+ * can time exactly the same code on a host JVM. Each kernel returns a value derived from
+ * its work for BenchmarkRunner's sink, so none of it is dead code. The random and hashing kernels are safe to run on several threads at once.
+ */
+public class BenchmarkKernels {
+
+    public static final int RANDOM_ITERATIONS = 1000000;
+    public static final int MATRIX_SIZE = 200;
+    public static final int HASH_ITERATIONS = 50000;
+
+    // Built once: the constructor reads cache sizes from sysfs, which must stay out of the timed runs
+    private final MatrixBenchmark matrixKernel = new MatrixBenchmark(MATRIX_SIZE);
+    // Inputs filled once too, so the timed kernel is the multiply alone (c is zeroed by multiply)
+    private final double[] matrixA = MatrixBenchmark.randomMatrix(MATRIX_SIZE, 1);
+    private final double[] matrixB = MatrixBenchmark.randomMatrix(MATRIX_SIZE, 2);
+    private final double[] matrixC = new double[MATRIX_SIZE * MATRIX_SIZE];
+
+    public long runRandomNumberTest() {
+        Random random = new Random();
+        long sum = 0;
+        for (int i = 0; i < RANDOM_ITERATIONS; i++) {
+            sum += random.nextInt(1000);
+        }
+        return sum;
+    }
+
+    /** Not thread-safe: shares one MatrixBenchmark. */
+    public long runMatrixMultiplication() {
+        // Flat row-major storage and the tiled kernel at the original 200x200 size. The kernel is
+        // faster than the old ijk loop, so BenchmarkProvider scores it against a new baseline
+        double[] c = matrixC;
+        matrixKernel.multiply(matrixA, matrixB, c);
+        return (long) (c[0] + c[c.length - 1]);
+    }
+
+    /**
+     * The multi-threaded round: {@code threads} tasks on {@code executor}, each running the
+     * random and hashing kernels; returns once all have finished.
+     */
+    public long runMultiThreaded(ExecutorService executor, int threads) {
+        CountDownLatch latch = new CountDownLatch(threads);
+        AtomicLong fold = new AtomicLong();
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                fold.addAndGet(runRandomNumberTest() + runHashingTest());
+                latch.countDown();
+            });
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return fold.get();
+    }
+
+    public long runHashingTest() {
+        long fold = 0;
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] data = new byte[1024];
+            Random random = new Random();
+
+            for (int i = 0; i < HASH_ITERATIONS; i++) {
+                random.nextBytes(data);
+                md.update(data);
+                fold += md.digest()[0];
+            }
+        } catch (Exception e) {
+            // Fallback to simple hash
+            for (int i = 0; i < HASH_ITERATIONS; i++) {
+                String test = "test" + i;
+                fold += test.hashCode();
+            }
+        }
+        return fold;
+    }
+}
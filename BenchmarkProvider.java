@@ -1,162 +1,214 @@
 package com.example.resourcemapperapp;
 
-import java.security.MessageDigest;
-import java.util.Random;
-import java.util.concurrent.CountDownLatch;
+import android.os.PowerManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class BenchmarkProvider {
     
     public static class BenchmarkResults {
+        // Medians of the measured repetitions; the Stats carry spread and confidence intervals
         public long randomGenTimeMs;
         public long matrixMultTimeMs;
+        public MatrixBenchmark.MatrixResults matrix; // GFLOP/s, single thread and fork-join
         public long hashingTimeMs;
         public long singleThreadScore;
         public long multiThreadScore;
         public long overallScore;
         public String comparison;
+        public ThreadProfiler threadProfile; // scheduling timeline of one extra, untimed multi-threaded round
+        public String threadSummary;
+        public BenchmarkRunner.Stats randomGen;
+        public BenchmarkRunner.Stats matrixMult;
+        public BenchmarkRunner.Stats hashing;
+        public BenchmarkRunner.Stats multiThread;
+        public boolean highVariance; // some kernel varied too much for its score to be trusted
+        public String details; // one "name: Stats.format()" line per kernel; "noisy" marks the culprits
+        public List<EnergyProfiler.PhaseEnergy> energy; // per kernel; null when not profiled
+        public double energyJ = Double.NaN;
+        public double scorePerJoule = Double.NaN; // overallScore / energyJ
+        public String energySummary;
     }
     
-    private static final int RANDOM_ITERATIONS = 1000000;
-    private static final int MATRIX_SIZE = 200;
-    private static final int HASH_ITERATIONS = 50000;
+    private static final String WORKER_PREFIX = "bench-worker-";
+    
+    private final BenchmarkRunner runner;
+    private final BenchmarkKernels kernels = new BenchmarkKernels();
+    
+    public BenchmarkProvider() {
+        this(new BenchmarkRunner());
+    }
+    
+    /** @param runner warmup and repetition counts used for every kernel */
+    public BenchmarkProvider(BenchmarkRunner runner) {
+        this.runner = runner;
+    }
     
     public BenchmarkResults runBenchmark() {
+        return runBenchmark(null);
+    }
+    
+    /**
+     * Runs the benchmark with each kernel tagged as a phase of {@code energy} (already started;
+     * may be null), so results carry energy per kernel and score per joule. Every kernel runs
+     * the runner's warmup plus measured repetitions (3 + 10 by default), so a run takes about
+     * 13 times as long as one pass of each kernel (about 11 s on a desktop JVM); construct
+     * the provider with a smaller {@link BenchmarkRunner} for a quick, less precise run.
+     */
+    public BenchmarkResults runBenchmark(EnergyProfiler energy) {
         BenchmarkResults results = new BenchmarkResults();
+        int firstPhase = energy != null ? energy.getPhases().size() : 0;
+        
+        // Run single-threaded benchmarks, warmed up and repeated
+        results.randomGen = measure("random", kernels::runRandomNumberTest, energy);
+        results.randomGenTimeMs = results.randomGen.medianMs();
         
-        // Run single-threaded benchmarks
-        long startTime = System.currentTimeMillis();
-        runRandomNumberTest();
-        results.randomGenTimeMs = System.currentTimeMillis() - startTime;
+        results.matrixMult = measure("matrix", kernels::runMatrixMultiplication, energy);
+        results.matrixMultTimeMs = results.matrixMult.medianMs();
         
-        startTime = System.currentTimeMillis();
-        runMatrixMultiplication();
-        results.matrixMultTimeMs = System.currentTimeMillis() - startTime;
+        if (energy != null) energy.beginPhase("matrix-gflops");
+        results.matrix = new MatrixBenchmark().run();
+        if (energy != null) energy.endPhase();
         
-        startTime = System.currentTimeMillis();
-        runHashingTest();
-        results.hashingTimeMs = System.currentTimeMillis() - startTime;
+        results.hashing = measure("sha256", kernels::runHashingTest, energy);
+        results.hashingTimeMs = results.hashing.medianMs();
         
         // Calculate single-thread score (lower time = higher score)
         // Normalize to a score out of 1000
         results.singleThreadScore = calculateSingleThreadScore(
-            results.randomGenTimeMs,
-            results.matrixMultTimeMs,
-            results.hashingTimeMs
+            results.randomGen.medianNs / 1_000_000.0,
+            results.matrixMult.medianNs / 1_000_000.0,
+            results.hashing.medianNs / 1_000_000.0
         );
         
-        // Run multi-threaded benchmark
-        startTime = System.currentTimeMillis();
-        runMultiThreadedBenchmark();
-        results.multiThreadScore = System.currentTimeMillis() - startTime;
+        // Run multi-threaded benchmark, then one extra round to sample how the workers were scheduled
+        ThreadProfiler profiler = new ThreadProfiler();
+        results.multiThread = runMultiThreadedBenchmark(profiler, energy);
+        results.multiThreadScore = results.multiThread.medianMs();
+        results.threadProfile = profiler;
+        results.threadSummary = profiler.formatSummary(WORKER_PREFIX);
+        results.highVariance = results.randomGen.highVariance || results.matrixMult.highVariance
+                || results.hashing.highVariance || results.multiThread.highVariance;
         
         // Calculate overall score
-        results.overallScore = calculateOverallScore(results.singleThreadScore, results.multiThreadScore);
+        results.overallScore = calculateOverallScore(results.singleThreadScore,
+                results.multiThread.medianNs / 1_000_000.0);
         
-        // Compare with standard phones
+        // Compare with standard phones, warning when the timings were too noisy to rank reliably
         results.comparison = compareWithStandardPhones(results.overallScore);
+        if (results.highVariance) {
+            results.comparison += " (unreliable: timings varied between runs; close other apps and retry)";
+        }
+        results.details = formatDetails(results.randomGen, results.matrixMult, results.hashing, results.multiThread);
+        
+        if (energy != null) {
+            List<EnergyProfiler.PhaseEnergy> phases = energy.getPhases();
+            results.energy = phases.subList(firstPhase, phases.size());
+            results.energyJ = 0;
+            for (EnergyProfiler.PhaseEnergy phase : results.energy) {
+                results.energyJ += phase.energyJ;
+            }
+            results.scorePerJoule = results.energyJ > 0 ? results.overallScore / results.energyJ : Double.NaN;
+            results.energySummary = EnergyProfiler.formatPhases(results.energy);
+        }
         
         return results;
     }
     
-    private void runRandomNumberTest() {
-        Random random = new Random();
-        long sum = 0;
-        for (int i = 0; i < RANDOM_ITERATIONS; i++) {
-            sum += random.nextInt(1000);
-        }
-        // Use sum to prevent optimization
-        if (sum < 0) {
-            // This will never happen, but prevents compiler optimization
+    /** Measures {@code kernel} as its own energy phase; work is the number of kernel runs. */
+    private BenchmarkRunner.Stats measure(String name, BenchmarkRunner.Kernel kernel, EnergyProfiler energy) {
+        if (energy != null) energy.beginPhase(name);
+        BenchmarkRunner.Stats stats = runner.measure(name, kernel);
+        if (energy != null) {
+            EnergyProfiler.PhaseEnergy phase = energy.endPhase();
+            if (phase != null) phase.work = (stats.warmup + stats.repetitions) * stats.opsPerRepetition;
         }
+        return stats;
     }
     
-    private void runMatrixMultiplication() {
-        int size = MATRIX_SIZE;
-        double[][] a = new double[size][size];
-        double[][] b = new double[size][size];
-        double[][] c = new double[size][size];
-        
-        Random random = new Random();
-        // Initialize matrices
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                a[i][j] = random.nextDouble();
-                b[i][j] = random.nextDouble();
-            }
-        }
-        
-        // Matrix multiplication
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                double sum = 0;
-                for (int k = 0; k < size; k++) {
-                    sum += a[i][k] * b[k][j];
-                }
-                c[i][j] = sum;
-            }
-        }
+    /**
+     * Storage mode: sequential, random 4 KiB, mmap and fsync measurements on a scratch file
+     * in {@code dir} (normally the app's files dir), within the default size and time budget.
+     */
+    public StorageBenchmark.StorageResults runStorageBenchmark(File dir) throws IOException {
+        return new StorageBenchmark(dir).run();
     }
     
-    private void runHashingTest() {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] data = new byte[1024];
-            Random random = new Random();
-            
-            for (int i = 0; i < HASH_ITERATIONS; i++) {
-                random.nextBytes(data);
-                md.update(data);
-                md.digest();
-            }
-        } catch (Exception e) {
-            // Fallback to simple hash
-            for (int i = 0; i < HASH_ITERATIONS; i++) {
-                String test = "test" + i;
-                test.hashCode();
-            }
-        }
+    public StorageBenchmark.StorageResults runStorageBenchmark(File dir, long fileBytes, long timeBudgetMs)
+            throws IOException {
+        return new StorageBenchmark(dir, fileBytes, timeBudgetMs).run();
+    }
+    
+    /** Memory mode: STREAM bandwidth (one thread and all cores) and the latency-vs-size curve. */
+    public MemoryBenchmark.MemoryResults runMemoryBenchmark() {
+        return new MemoryBenchmark().run();
     }
     
-    private void runMultiThreadedBenchmark() {
+    /**
+     * Sustained mode: all cores under fixed-work load for {@code durationMs} (minutes, so the
+     * SoC throttles), traced once per second. {@code powerManager} may be null.
+     */
+    public SustainedBenchmark.SustainedResults runSustainedBenchmark(PowerManager powerManager, long durationMs) {
+        return new SustainedBenchmark(powerManager, durationMs, SustainedBenchmark.DEFAULT_INTERVAL_MS).run();
+    }
+    
+    private BenchmarkRunner.Stats runMultiThreadedBenchmark(ThreadProfiler profiler, EnergyProfiler energy) {
         int numCores = Runtime.getRuntime().availableProcessors();
-        ExecutorService executor = Executors.newFixedThreadPool(numCores);
-        CountDownLatch latch = new CountDownLatch(numCores);
-        
-        for (int i = 0; i < numCores; i++) {
-            executor.submit(() -> {
-                // Run a mix of operations on each thread
-                runRandomNumberTest();
-                runHashingTest();
-                latch.countDown();
-            });
-        }
-        
+        // Named workers so the thread profiler can pick them out of /proc/self/task
+        AtomicInteger workerId = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(numCores,
+                r -> new Thread(r, WORKER_PREFIX + workerId.getAndIncrement()));
         try {
-            latch.await();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            // The pool is reused across repetitions, so warmup also covers thread start-up
+            BenchmarkRunner.Stats stats = measure("multi-thread",
+                    () -> kernels.runMultiThreaded(executor, numCores), energy);
+            // Profiled round outside the timed repetitions, so the sampler thread cannot skew them
+            profiler.start();
+            try {
+                BenchmarkRunner.consume(kernels.runMultiThreaded(executor, numCores));
+            } finally {
+                // Take the final sample while the workers still exist in /proc/self/task
+                profiler.stop();
+            }
+            return stats;
         } finally {
             executor.shutdown();
         }
     }
     
-    private long calculateSingleThreadScore(long randomTime, long matrixTime, long hashTime) {
+    private static String formatDetails(BenchmarkRunner.Stats... stats) {
+        StringBuilder sb = new StringBuilder();
+        for (BenchmarkRunner.Stats s : stats) {
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(s.name).append(": ").append(s.format());
+        }
+        return sb.toString();
+    }
+    
+    private long calculateSingleThreadScore(double randomTime, double matrixTime, double hashTime) {
         // Normalize times to a score (lower time = higher score)
-        // Base scores: random ~50ms, matrix ~500ms, hash ~100ms for mid-range phone
-        long normalizedRandom = Math.max(1, 5000 / Math.max(1, randomTime));
-        long normalizedMatrix = Math.max(1, 50000 / Math.max(1, matrixTime));
-        long normalizedHash = Math.max(1, 10000 / Math.max(1, hashTime));
+        // Base scores: random ~50ms, matrix ~300ms, hash ~100ms for mid-range phone
+        // The matrix baseline was ~500ms for the old ijk loop on double[][]; the tiled flat kernel
+        // measured ~1.7x faster on the same 200x200 input, so the baseline is scaled to match.
+        // Input set-up later moved out of the timed kernel (~20% of its time), scaling it to 0.8x.
+        // Matrix and overall scores from before the tiled kernel are not directly comparable.
+        long normalizedRandom = Math.max(1, (long) (5000 / Math.max(1.0, randomTime)));
+        long normalizedMatrix = Math.max(1, (long) (24000 / Math.max(1.0, matrixTime)));
+        long normalizedHash = Math.max(1, (long) (10000 / Math.max(1.0, hashTime)));
         
         // Weighted average
         return (normalizedRandom * 2 + normalizedMatrix * 5 + normalizedHash * 3) / 10;
     }
     
-    private long calculateOverallScore(long singleThreadScore, long multiThreadTime) {
+    private long calculateOverallScore(long singleThreadScore, double multiThreadTime) {
         // Multi-thread score (lower time = higher score)
         // Expected multi-thread time for mid-range: ~200ms
-        long multiThreadScore = Math.max(1, 20000 / Math.max(1, multiThreadTime));
+        long multiThreadScore = Math.max(1, (long) (20000 / Math.max(1.0, multiThreadTime)));
         
         // Combine single-thread (70%) and multi-thread (30%) performance
         return (singleThreadScore * 7 + multiThreadScore * 3) / 10;
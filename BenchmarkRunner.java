@@ -0,0 +1,175 @@
+package com.example.resourcemapperapp;
+
+import java.util.Arrays;
+
+/**
+ * Runs a benchmark kernel through warmup iterations (so the JIT has compiled it) and then a
+ * number of measured repetitions timed with {@link System#nanoTime()}, and summarizes the
+ * per-repetition times: median, p10/p90, mean, standard deviation and a Student-t 95%
+ * confidence interval for the mean. Every value a kernel returns is folded into a volatile
+ * sink, so the work behind it cannot be eliminated as dead code. A run whose interval is
+ * wider than {@link #MAX_RELATIVE_CI} of the mean is flagged as not trustworthy.
+ */
+public class BenchmarkRunner {
+
+    public interface Kernel {
+        /** One unit of work; return something derived from its result. */
+        long run();
+    }
+
+    public static class Stats {
+        public String name;
+        public int warmup;
+        public int repetitions;
+        public long opsPerRepetition;
+        public double medianNs; // per op
+        public double p10Ns;
+        public double p90Ns;
+        public double meanNs;
+        public double stddevNs;
+        public double ci95LowNs;
+        public double ci95HighNs;
+        public boolean highVariance; // 95% CI wider than MAX_RELATIVE_CI of the mean
+        public double[] samplesNs; // per-op time of each measured repetition, in run order
+
+        public long medianMs() {
+            return Math.round(medianNs / 1_000_000.0);
+        }
+
+        /** Half-width of the 95% interval as a percentage of the mean. */
+        public double ciPercent() {
+            return meanNs > 0 ? (ci95HighNs - meanNs) * 100.0 / meanNs : 0;
+        }
+
+        /** "12.3 ms median (p10 12.1, p90 13.0) +/-1.2%", with " noisy" appended if flagged. */
+        public String format() {
+            StringBuilder sb = new StringBuilder(64);
+            appendNs(sb, medianNs).append(" median (p10 ");
+            appendNs(sb, p10Ns).append(", p90 ");
+            appendNs(sb, p90Ns).append(") +/-");
+            HumanFormatter.appendFixed(sb, ciPercent(), 1).append('%');
+            if (highVariance) sb.append(" noisy");
+            return sb.toString();
+        }
+    }
+
+    public static final int DEFAULT_WARMUP = 3;
+    public static final int DEFAULT_REPETITIONS = 10;
+    public static final double MAX_RELATIVE_CI = 0.05;
+
+    // Two-sided 95% Student-t critical values for 1..30 degrees of freedom
+    private static final double[] T95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    private static volatile long sink;
+
+    private final int warmup;
+    private final int repetitions;
+
+    public BenchmarkRunner() {
+        this(DEFAULT_WARMUP, DEFAULT_REPETITIONS);
+    }
+
+    /** @param repetitions measured repetitions; at least two, so a variance exists */
+    public BenchmarkRunner(int warmup, int repetitions) {
+        this.warmup = Math.max(0, warmup);
+        this.repetitions = Math.max(2, repetitions);
+    }
+
+    /** Consumes a value so the computation producing it stays live. */
+    public static void consume(long value) {
+        sink += value;
+    }
+
+    public static void consume(double value) {
+        sink += Double.doubleToRawLongBits(value);
+    }
+
+    /** Times one {@code kernel.run()} per repetition. */
+    public Stats measure(String name, Kernel kernel) {
+        return measure(name, kernel, 1);
+    }
+
+    /**
+     * Times {@code opsPerRepetition} back-to-back calls per repetition and reports per-call
+     * times; use a batch for kernels too short to time individually.
+     */
+    public Stats measure(String name, Kernel kernel, long opsPerRepetition) {
+        long ops = Math.max(1L, opsPerRepetition);
+        for (int i = 0; i < warmup; i++) {
+            consume(runBatch(kernel, ops));
+        }
+        double[] samples = new double[repetitions];
+        for (int i = 0; i < repetitions; i++) {
+            long t0 = System.nanoTime();
+            long acc = runBatch(kernel, ops);
+            samples[i] = (System.nanoTime() - t0) / (double) ops;
+            consume(acc);
+        }
+        return summarize(name, samples, ops);
+    }
+
+    private static long runBatch(Kernel kernel, long ops) {
+        long acc = 0;
+        for (long op = 0; op < ops; op++) {
+            acc += kernel.run();
+        }
+        return acc;
+    }
+
+    private Stats summarize(String name, double[] samples, long ops) {
+        Stats stats = new Stats();
+        stats.name = name;
+        stats.warmup = warmup;
+        stats.repetitions = samples.length;
+        stats.opsPerRepetition = ops;
+        stats.samplesNs = samples;
+
+        double[] sorted = Arrays.copyOf(samples, samples.length);
+        Arrays.sort(sorted);
+        stats.medianNs = percentile(sorted, 50);
+        stats.p10Ns = percentile(sorted, 10);
+        stats.p90Ns = percentile(sorted, 90);
+
+        int n = samples.length;
+        double mean = 0;
+        for (double s : samples) mean += s;
+        mean /= n;
+        double var = 0;
+        for (double s : samples) var += (s - mean) * (s - mean);
+        double stddev = Math.sqrt(var / (n - 1));
+        double halfWidth = t95(n - 1) * stddev / Math.sqrt(n);
+        stats.meanNs = mean;
+        stats.stddevNs = stddev;
+        stats.ci95LowNs = mean - halfWidth;
+        stats.ci95HighNs = mean + halfWidth;
+        stats.highVariance = mean > 0 && halfWidth / mean > MAX_RELATIVE_CI;
+        return stats;
+    }
+
+    /** Linear interpolation between closest ranks of a sorted array. */
+    static double percentile(double[] sorted, int pct) {
+        if (sorted.length == 1) return sorted[0];
+        double rank = pct / 100.0 * (sorted.length - 1);
+        int lo = (int) Math.floor(rank);
+        int hi = Math.min(sorted.length - 1, lo + 1);
+        return sorted[lo] + (sorted[hi] - sorted[lo]) * (rank - lo);
+    }
+
+    private static double t95(int degreesOfFreedom) {
+        return degreesOfFreedom <= T95.length ? T95[degreesOfFreedom - 1] : 1.96;
+    }
+
+    private static StringBuilder appendNs(StringBuilder sb, double ns) {
+        if (ns >= 1_000_000.0) {
+            return HumanFormatter.appendFixed(sb, ns / 1_000_000.0, 1).append(" ms");
+        }
+        if (ns >= 1_000.0) {
+            return HumanFormatter.appendFixed(sb, ns / 1_000.0, 1).append(" us");
+        }
+        return HumanFormatter.appendFixed(sb, ns, 1).append(" ns");
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.resourcemapperapp;
+
+/**
+ * Samples every cpuN line of /proc/stat and each core's scaling_cur_freq in one pass.
+ * Previous counters live in primitive arrays, so a sample allocates nothing once the
+ * readers are warmed up. Percentages are computed over the interval between two
+ * {@link #sample()} calls; until the second sample they read as -1.
+ */
+public class CpuCoreSampler {
+
+    private static final byte[] CPU_PREFIX = ProcFileReader.ascii("cpu");
+    // user nice system idle iowait irq softirq steal
+    private static final int FIELDS = 8;
+
+    private final int coreCount;
+    private final ProcFileReader statReader;
+    private final ProcFileReader[] freqReaders;
+    private final long[] jiffies = new long[FIELDS];
+
+    private final long[] prevTotal;
+    private final long[] prevIdle;
+    private final long[] prevIowait;
+    private final long[] prevIrq;
+    private final boolean[] online;
+    private final float[] busyPercent;
+    private final float[] iowaitPercent;
+    private final float[] irqPercent;
+    private final long[] curFreqKhz;
+
+    public CpuCoreSampler() {
+        this(detectPossibleCores());
+    }
+
+    public CpuCoreSampler(int coreCount) {
+        this("/proc/stat", coreCount);
+    }
+
+    /** Alternate /proc/stat path, e.g. a recorded fixture file. */
+    public CpuCoreSampler(String statPath, int coreCount) {
+        this.coreCount = Math.max(1, coreCount);
+        statReader = new ProcFileReader(statPath);
+        freqReaders = new ProcFileReader[this.coreCount];
+        for (int i = 0; i < this.coreCount; i++) {
+            freqReaders[i] = new ProcFileReader("/sys/devices/system/cpu/cpu" + i + "/cpufreq/scaling_cur_freq", 64);
+        }
+        prevTotal = new long[this.coreCount];
+        prevIdle = new long[this.coreCount];
+        prevIowait = new long[this.coreCount];
+        prevIrq = new long[this.coreCount];
+        online = new boolean[this.coreCount];
+        busyPercent = new float[this.coreCount];
+        iowaitPercent = new float[this.coreCount];
+        irqPercent = new float[this.coreCount];
+        curFreqKhz = new long[this.coreCount];
+        java.util.Arrays.fill(busyPercent, -1f);
+        java.util.Arrays.fill(iowaitPercent, -1f);
+        java.util.Arrays.fill(irqPercent, -1f);
+        java.util.Arrays.fill(curFreqKhz, -1L);
+    }
+
+    /**
+     * Reads /proc/stat and all cpufreq files once and updates the per-core values.
+     * Returns false if /proc/stat is not readable.
+     */
+    public boolean sample() {
+        for (int i = 0; i < coreCount; i++) {
+            online[i] = false;
+            curFreqKhz[i] = freqReaders[i].readLong(-1L);
+        }
+        if (!statReader.read()) {
+            return false;
+        }
+        byte[] buf = statReader.buffer();
+        int len = statReader.length();
+        int pos = statReader.nextLine(0); // skip the aggregate "cpu " line
+        while (pos < len && statReader.startsWith(pos, CPU_PREFIX)) {
+            int p = pos + CPU_PREFIX.length;
+            int core = 0;
+            boolean digits = false;
+            while (p < len && buf[p] >= '0' && buf[p] <= '9') {
+                core = core * 10 + (buf[p] - '0');
+                digits = true;
+                p++;
+            }
+            if (digits && core < coreCount) {
+                int n = statReader.parseLongs(p, jiffies, 0, FIELDS);
+                for (int i = n; i < FIELDS; i++) {
+                    jiffies[i] = 0L;
+                }
+                if (n >= 4) {
+                    update(core);
+                }
+            }
+            pos = statReader.nextLine(pos);
+        }
+        // Offline cores drop out of /proc/stat; forget their baseline so they restart cleanly
+        for (int i = 0; i < coreCount; i++) {
+            if (!online[i]) {
+                prevTotal[i] = 0L;
+                busyPercent[i] = -1f;
+                iowaitPercent[i] = -1f;
+                irqPercent[i] = -1f;
+            }
+        }
+        return true;
+    }
+
+    private void update(int core) {
+        long idle = jiffies[3];
+        long iowait = jiffies[4];
+        long irq = jiffies[5] + jiffies[6];
+        long total = 0L;
+        for (int i = 0; i < FIELDS; i++) {
+            total += jiffies[i];
+        }
+        online[core] = true;
+
+        long totalDelta = total - prevTotal[core];
+        if (prevTotal[core] == 0L || totalDelta <= 0L) {
+            // First sample, counter reset, or no ticks elapsed: keep previous percentages
+            if (prevTotal[core] == 0L || totalDelta < 0L) {
+                busyPercent[core] = -1f;
+                iowaitPercent[core] = -1f;
+                irqPercent[core] = -1f;
+            }
+        } else {
+            long idleDelta = (idle + iowait) - (prevIdle[core] + prevIowait[core]);
+            busyPercent[core] = clampPercent((totalDelta - idleDelta) * 100f / totalDelta);
+            iowaitPercent[core] = clampPercent((iowait - prevIowait[core]) * 100f / totalDelta);
+            irqPercent[core] = clampPercent((irq - prevIrq[core]) * 100f / totalDelta);
+        }
+        prevTotal[core] = total;
+        prevIdle[core] = idle;
+        prevIowait[core] = iowait;
+        prevIrq[core] = irq;
+    }
+
+    private static float clampPercent(float v) {
+        if (v < 0f) return 0f;
+        if (v > 100f) return 100f;
+        return v;
+    }
+
+    public int getCoreCount() {
+        return coreCount;
+    }
+
+    public boolean isOnline(int core) {
+        return online[core];
+    }
+
+    /** Non-idle share of the last interval (0-100), or -1 if not yet known. */
+    public float getBusyPercent(int core) {
+        return busyPercent[core];
+    }
+
+    public float getIowaitPercent(int core) {
+        return iowaitPercent[core];
+    }
+
+    /** Hard + soft IRQ share of the last interval (0-100), or -1 if not yet known. */
+    public float getIrqPercent(int core) {
+        return irqPercent[core];
+    }
+
+    /** Current frequency in kHz as reported by cpufreq, or -1 if unavailable. */
+    public long getCurFreqKhz(int core) {
+        return curFreqKhz[core];
+    }
+
+    public void close() {
+        statReader.close();
+        for (ProcFileReader r : freqReaders) {
+            r.close();
+        }
+    }
+
+    /** Parses /sys/devices/system/cpu/possible (e.g. "0-7") so offline cores are still tracked. */
+    static int detectPossibleCores() {
+        int fallback = Runtime.getRuntime().availableProcessors();
+        ProcFileReader r = new ProcFileReader("/sys/devices/system/cpu/possible", 64);
+        try {
+            if (!r.read()) return fallback;
+            byte[] buf = r.buffer();
+            int len = r.length();
+            int max = -1;
+            int value = -1;
+            for (int i = 0; i < len; i++) {
+                byte c = buf[i];
+                if (c >= '0' && c <= '9') {
+                    value = (value < 0 ? 0 : value * 10) + (c - '0');
+                } else {
+                    if (value > max) max = value;
+                    value = -1;
+                }
+            }
+            if (value > max) max = value;
+            return max >= 0 ? Math.max(max + 1, fallback) : fallback;
+        } finally {
+            r.close();
+        }
+    }
+}
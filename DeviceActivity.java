@@ -12,9 +12,10 @@ public class DeviceActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_device);
 
-        StatsProvider provider = new StatsProvider(this);
-        StatsProvider.DeviceDetails d = provider.collectDeviceDetails();
+        SamplingEngine.get(this).request(StatsProvider::collectDeviceDetails, this::showDeviceDetails);
+    }
 
+    private void showDeviceDetails(StatsProvider.DeviceDetails d) {
         ((TextView) findViewById(R.id.rowModel)).setText(d.model);
         ((TextView) findViewById(R.id.rowDeviceString)).setText(d.deviceString);
         ((TextView) findViewById(R.id.rowMotherboard)).setText(d.motherboardId);
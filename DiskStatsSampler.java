@@ -0,0 +1,221 @@
+package com.example.resourcemapperapp;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Block-device I/O load for the device backing a mount point (by default /data). The device
+ * is resolved once from /proc/self/mountinfo (major:minor, fs type); each {@link #sample(long)}
+ * re-reads /proc/diskstats (or /sys/dev/block/MAJ:MIN/stat when diskstats is not readable)
+ * into a reusable buffer and derives IOPS, throughput, average request latency, average
+ * queue depth and utilization from deltas of the kernel counters. Not thread-safe.
+ */
+public class DiskStatsSampler {
+
+    // Field order shared by /proc/diskstats (after major, minor, name) and /sys/block/*/stat
+    private static final int READS = 0;
+    private static final int READ_SECTORS = 2;
+    private static final int READ_MS = 3;
+    private static final int WRITES = 4;
+    private static final int WRITE_SECTORS = 6;
+    private static final int WRITE_MS = 7;
+    private static final int IN_FLIGHT = 8;
+    private static final int IO_MS = 9;
+    private static final int WEIGHTED_MS = 10;
+    private static final int FIELDS = 11;
+    private static final int SECTOR_BYTES = 512;
+
+    private final String mountPoint;
+    private boolean resolved;
+    private int major = -1;
+    private int minor = -1;
+    private String deviceName = "-";
+    private String fsType;
+    private ProcFileReader diskstats = new ProcFileReader("/proc/diskstats", 16384);
+    private ProcFileReader sysStat;
+
+    private final long[] current = new long[FIELDS];
+    private final long[] previous = new long[FIELDS];
+    private final long[] header = new long[2];
+    private boolean havePrevious;
+    private long lastSampleMs = -1L;
+
+    private float readIops = Float.NaN;
+    private float writeIops = Float.NaN;
+    private float readBytesPerSec = Float.NaN;
+    private float writeBytesPerSec = Float.NaN;
+    private float readLatencyMs = Float.NaN;
+    private float writeLatencyMs = Float.NaN;
+    private float queueDepth = Float.NaN;
+    private float utilizationPercent = Float.NaN;
+    private long inFlight = -1L;
+
+    public DiskStatsSampler() {
+        this("/data");
+    }
+
+    public DiskStatsSampler(String mountPoint) {
+        this.mountPoint = mountPoint;
+    }
+
+    /** Reads the counters and updates the per-second rates; false if the device is unknown. */
+    public boolean sample(long nowMs) {
+        if (!resolved) {
+            resolved = true;
+            resolveDevice();
+        }
+        if (major < 0 || !readCounters()) {
+            inFlight = -1L;
+            return false;
+        }
+        inFlight = current[IN_FLIGHT];
+        long elapsedMs = lastSampleMs > 0 ? nowMs - lastSampleMs : -1L;
+        if (havePrevious && elapsedMs > 0 && current[READS] >= previous[READS] && current[WRITES] >= previous[WRITES]) {
+            long reads = current[READS] - previous[READS];
+            long writes = current[WRITES] - previous[WRITES];
+            float seconds = elapsedMs / 1000f;
+            readIops = reads / seconds;
+            writeIops = writes / seconds;
+            readBytesPerSec = (current[READ_SECTORS] - previous[READ_SECTORS]) * (float) SECTOR_BYTES / seconds;
+            writeBytesPerSec = (current[WRITE_SECTORS] - previous[WRITE_SECTORS]) * (float) SECTOR_BYTES / seconds;
+            readLatencyMs = reads > 0 ? (current[READ_MS] - previous[READ_MS]) / (float) reads : 0f;
+            writeLatencyMs = writes > 0 ? (current[WRITE_MS] - previous[WRITE_MS]) / (float) writes : 0f;
+            // Time-weighted ms of outstanding I/O per ms elapsed = average queue length (iostat avgqu-sz)
+            queueDepth = (current[WEIGHTED_MS] - previous[WEIGHTED_MS]) / (float) elapsedMs;
+            utilizationPercent = Math.min(100f, (current[IO_MS] - previous[IO_MS]) * 100f / elapsedMs);
+        }
+        System.arraycopy(current, 0, previous, 0, FIELDS);
+        havePrevious = true;
+        lastSampleMs = nowMs;
+        return true;
+    }
+
+    /** Kernel name of the backing device, e.g. "dm-5" or "sda17", or "-" if unresolved. */
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    /** File system type from mountinfo, or null if the mount was not found. */
+    public String getFsType() {
+        if (!resolved) {
+            resolved = true;
+            resolveDevice();
+        }
+        return fsType;
+    }
+
+    public float getReadIops() {
+        return readIops;
+    }
+
+    public float getWriteIops() {
+        return writeIops;
+    }
+
+    public float getReadBytesPerSec() {
+        return readBytesPerSec;
+    }
+
+    public float getWriteBytesPerSec() {
+        return writeBytesPerSec;
+    }
+
+    /** Average time a completed read spent queued and in service, in ms. */
+    public float getReadLatencyMs() {
+        return readLatencyMs;
+    }
+
+    public float getWriteLatencyMs() {
+        return writeLatencyMs;
+    }
+
+    /** Average number of outstanding requests between the last two samples. */
+    public float getQueueDepth() {
+        return queueDepth;
+    }
+
+    public float getUtilizationPercent() {
+        return utilizationPercent;
+    }
+
+    /** Requests in flight at the last sample, or -1. */
+    public long getInFlight() {
+        return inFlight;
+    }
+
+    private boolean readCounters() {
+        if (diskstats != null) {
+            if (diskstats.read()) {
+                int len = diskstats.length();
+                int pos = 0;
+                while (pos < len) {
+                    // "   8       0 sda 1234 ..." : major, minor, name, then the counters
+                    if (diskstats.parseLongs(pos, header, 0, 2) == 2 && header[0] == major && header[1] == minor) {
+                        int p = diskstats.skipToken(diskstats.skipBlanks(pos));
+                        p = diskstats.skipToken(diskstats.skipBlanks(p));
+                        p = diskstats.skipToken(diskstats.skipBlanks(p));
+                        return diskstats.parseLongs(p, current, 0, FIELDS) == FIELDS;
+                    }
+                    pos = diskstats.nextLine(pos);
+                }
+                return false;
+            }
+            // Not readable for this app (SELinux); use the per-device sysfs file from now on
+            diskstats.close();
+            diskstats = null;
+            sysStat = new ProcFileReader("/sys/dev/block/" + major + ":" + minor + "/stat", 256);
+        }
+        return sysStat.read() && sysStat.parseLongs(0, current, 0, FIELDS) == FIELDS;
+    }
+
+    /** Finds the mount in /proc/self/mountinfo: "id parent MAJ:MIN root mountpoint ... - fstype source ...". */
+    private void resolveDevice() {
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new FileReader("/proc/self/mountinfo"));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                if (parts.length < 5 || !mountPoint.equals(parts[4])) continue;
+                int colon = parts[2].indexOf(':');
+                if (colon <= 0) continue;
+                major = Integer.parseInt(parts[2].substring(0, colon));
+                minor = Integer.parseInt(parts[2].substring(colon + 1));
+                for (int i = 5; i + 1 < parts.length; i++) {
+                    if ("-".equals(parts[i])) {
+                        fsType = parts[i + 1];
+                        break;
+                    }
+                }
+                // Later entries for the same mount point are over-mounts; the last one is visible
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Leave unresolved
+        } finally {
+            if (reader != null) {
+                try { reader.close(); } catch (IOException ignored) {}
+            }
+        }
+        if (major >= 0) {
+            deviceName = readDeviceName();
+        }
+    }
+
+    /** DEVNAME from /sys/dev/block/MAJ:MIN/uevent, e.g. "dm-5". */
+    private String readDeviceName() {
+        ProcFileReader uevent = new ProcFileReader("/sys/dev/block/" + major + ":" + minor + "/uevent", 256);
+        try {
+            if (!uevent.read()) return major + ":" + minor;
+            byte[] key = ProcFileReader.ascii("DEVNAME=");
+            int pos = uevent.findLine(key);
+            if (pos < 0) return major + ":" + minor;
+            int start = pos + key.length;
+            int end = uevent.skipToken(start);
+            return new String(uevent.buffer(), start, end - start, StandardCharsets.US_ASCII);
+        } finally {
+            uevent.close();
+        }
+    }
+}
@@ -10,7 +10,10 @@ public class DisplayActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_display);
 
-        StatsProvider.DisplayDetails d = new StatsProvider(this).collectDisplayDetails();
+        SamplingEngine.get(this).request(StatsProvider::collectDisplayDetails, this::showDisplayDetails);
+    }
+
+    private void showDisplayDetails(StatsProvider.DisplayDetails d) {
         ((TextView) findViewById(R.id.rowScreenSize)).setText(d.screenSize);
         ((TextView) findViewById(R.id.rowAspectRatio)).setText(d.aspectRatio);
         ((TextView) findViewById(R.id.rowPixelDensity)).setText(d.pixelDensity);
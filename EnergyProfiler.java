@@ -0,0 +1,243 @@
+package com.example.resourcemapperapp;
+
+import android.content.Context;
+import android.os.BatteryManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Attributes battery drain to workload phases. While started, a background thread samples
+ * BATTERY_PROPERTY_CURRENT_NOW every interval (100 ms by default), multiplies it by the
+ * battery voltage from {@link BatteryMonitor} and integrates the power (trapezoid rule) into
+ * the phase that is open at that moment; the charge counter is read at phase boundaries as a
+ * cross-check. Fuel gauges often average current over a second or more, so phases much
+ * shorter than that get coarse figures, and nothing meaningful is measured while the device
+ * is plugged in ({@link PhaseEnergy#pluggedIn}). Each sample is a Binder call into the battery
+ * HAL, so the profiler wakes a core and forces context switches every interval; kernels timed
+ * while it runs are perturbed slightly, and their times should only be compared with runs
+ * that were profiled the same way.
+ */
+public class EnergyProfiler {
+
+    public static class PhaseEnergy {
+        public String name;
+        public long durationMs;
+        public int samples;
+        public double energyJ; // integrated V x I
+        public double averagePowerW;
+        public double chargeCounterMah = Double.NaN; // charge counter delta, NaN if unsupported
+        public boolean pluggedIn; // on external power at any point; energy is not battery drain
+        public double work = Double.NaN; // caller-supplied units of work (score, iterations, ...)
+
+        /** Work per joule, or NaN without work or energy. */
+        public double workPerJoule() {
+            return energyJ > 0 && !Double.isNaN(work) ? work / energyJ : Double.NaN;
+        }
+
+        public double energyMwh() {
+            return energyJ / 3.6;
+        }
+    }
+
+    public static final long DEFAULT_INTERVAL_MS = 100L;
+
+    // Some battery HALs report CURRENT_NOW in mA instead of uA. An awake phone draws well over
+    // 10 mA, so the first reading after start() tells the units apart
+    private static final long MILLIAMP_THRESHOLD = 10_000L;
+
+    private final BatteryManager batteryManager;
+    private final BatteryMonitor monitor;
+    private final long intervalMs;
+    private final Object lock = new Object();
+    private final List<PhaseEnergy> phases = new ArrayList<>();
+
+    private volatile boolean running;
+    private Thread sampler;
+
+    // Guarded by lock
+    private PhaseEnergy open;
+    private long openStartNs;
+    private long openStartChargeUah;
+    private long lastSampleNs;
+    private double lastPowerW = Double.NaN;
+    private double totalEnergyJ;
+    private long currentToUa; // 0 until the units are detected, then 1 (uA) or 1000 (mA)
+
+    public EnergyProfiler(Context context, BatteryMonitor monitor) {
+        this(context, monitor, DEFAULT_INTERVAL_MS);
+    }
+
+    /** @param monitor supplies voltage and plug state; must be started */
+    public EnergyProfiler(Context context, BatteryMonitor monitor, long intervalMs) {
+        this.batteryManager = (BatteryManager) context.getApplicationContext()
+                .getSystemService(Context.BATTERY_SERVICE);
+        this.monitor = monitor;
+        this.intervalMs = Math.max(10L, intervalMs);
+    }
+
+    /** Starts sampling on a background thread; energy outside any phase still counts in the total. */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        synchronized (lock) {
+            lastSampleNs = System.nanoTime();
+            lastPowerW = readPowerW();
+        }
+        sampler = new Thread(this::sampleLoop, "energy-profiler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    /** Stops sampling, closing any open phase. */
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        sampler.interrupt();
+        try {
+            sampler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sampler = null;
+        endPhase();
+    }
+
+    /** Closes the open phase, if any, and attributes energy from now on to {@code name}. */
+    public void beginPhase(String name) {
+        synchronized (lock) {
+            if (closePhase() == null) sample();
+            open = new PhaseEnergy();
+            open.name = name;
+            open.pluggedIn = isPluggedIn();
+            openStartNs = System.nanoTime();
+            openStartChargeUah = readChargeCounterUah();
+        }
+    }
+
+    /** Closes the open phase and returns it, or null if none was open. */
+    public PhaseEnergy endPhase() {
+        synchronized (lock) {
+            return closePhase();
+        }
+    }
+
+    /** Completed phases in the order they ended. */
+    public List<PhaseEnergy> getPhases() {
+        synchronized (lock) {
+            return new ArrayList<>(phases);
+        }
+    }
+
+    /** Energy integrated since {@link #start()}, in or out of phases. */
+    public double getTotalEnergyJ() {
+        synchronized (lock) {
+            return totalEnergyJ;
+        }
+    }
+
+    /** "random 1.2 J 2.31 W 10.8/J, sha256 ..."; "(plugged in)" marks phases that are not battery drain. */
+    public static String formatPhases(List<PhaseEnergy> phases) {
+        StringBuilder sb = new StringBuilder();
+        for (PhaseEnergy phase : phases) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(phase.name).append(' ');
+            if (phase.samples == 0) {
+                sb.append('-');
+                continue;
+            }
+            HumanFormatter.appendFixed(sb, phase.energyJ, 1).append(" J ");
+            HumanFormatter.appendFixed(sb, phase.averagePowerW, 2).append(" W");
+            double perJoule = phase.workPerJoule();
+            if (!Double.isNaN(perJoule)) {
+                sb.append(' ');
+                HumanFormatter.appendFixed(sb, perJoule, 1).append("/J");
+            }
+            if (phase.pluggedIn) sb.append(" (plugged in)");
+        }
+        return sb.length() == 0 ? "-" : sb.toString();
+    }
+
+    private PhaseEnergy closePhase() {
+        if (open == null) return null;
+        sample();
+        PhaseEnergy phase = open;
+        open = null;
+        phase.durationMs = (System.nanoTime() - openStartNs) / 1_000_000L;
+        phase.averagePowerW = phase.durationMs > 0 ? phase.energyJ * 1000.0 / phase.durationMs : 0;
+        long endChargeUah = readChargeCounterUah();
+        if (openStartChargeUah != Long.MIN_VALUE && endChargeUah != Long.MIN_VALUE) {
+            phase.chargeCounterMah = (openStartChargeUah - endChargeUah) / 1000.0;
+        }
+        phase.pluggedIn |= isPluggedIn();
+        phases.add(phase);
+        return phase;
+    }
+
+    private void sampleLoop() {
+        while (running) {
+            try {
+                Thread.sleep(intervalMs);
+            } catch (InterruptedException e) {
+                break;
+            }
+            synchronized (lock) {
+                sample();
+            }
+        }
+    }
+
+    /** Integrates power since the previous sample into the total and the open phase. Holds lock. */
+    private void sample() {
+        long now = System.nanoTime();
+        double power = readPowerW();
+        if (!Double.isNaN(power) && !Double.isNaN(lastPowerW) && now > lastSampleNs) {
+            double joules = (lastPowerW + power) / 2 * ((now - lastSampleNs) / 1e9);
+            totalEnergyJ += joules;
+            if (open != null) {
+                open.energyJ += joules;
+                open.samples++;
+            }
+        }
+        lastSampleNs = now;
+        lastPowerW = power;
+    }
+
+    /** Instantaneous battery power in watts, or NaN if current or voltage is unavailable. Holds lock. */
+    private double readPowerW() {
+        int voltageMv = monitor.getVoltageMv();
+        if (batteryManager == null || voltageMv <= 0) return Double.NaN;
+        long current;
+        try {
+            current = batteryManager.getIntProperty(BatteryManager.BATTERY_PROPERTY_CURRENT_NOW);
+        } catch (RuntimeException e) {
+            // Property not supported by this battery HAL
+            return Double.NaN;
+        }
+        if (current == Integer.MIN_VALUE) return Double.NaN;
+        // Sign convention differs between vendors; discharge magnitude is what matters here
+        current = Math.abs(current);
+        if (currentToUa == 0) {
+            // Decided once, so a uA reading that dips under the threshold is not scaled by 1000
+            if (current == 0) return Double.NaN;
+            currentToUa = current < MILLIAMP_THRESHOLD ? 1000L : 1L;
+        }
+        return voltageMv / 1000.0 * (current * currentToUa / 1e6);
+    }
+
+    /** Read directly rather than from the monitor, whose counter poll is too slow for phase edges. */
+    private long readChargeCounterUah() {
+        if (batteryManager == null) return Long.MIN_VALUE;
+        try {
+            long uah = batteryManager.getLongProperty(BatteryManager.BATTERY_PROPERTY_CHARGE_COUNTER);
+            return uah > 0 && uah != Long.MIN_VALUE ? uah : Long.MIN_VALUE;
+        } catch (RuntimeException e) {
+            // Property not supported by this battery HAL
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private boolean isPluggedIn() {
+        return monitor.getPlugged() > 0;
+    }
+}
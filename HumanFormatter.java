@@ -0,0 +1,93 @@
+package com.example.resourcemapperapp;
+
+/**
+ * Allocation-free formatting of byte sizes, rates and percentages for the refresh path.
+ * The static helpers append into a caller-owned StringBuilder and produce the same text
+ * as the former String.format based helpers ("%.1f KB", "%.0f%%", ...). {@link CachedText}
+ * wraps a reusable builder and only creates a new String when the text actually changes.
+ */
+public final class HumanFormatter {
+
+    private static final String[] BYTE_UNITS = {"B", "KB", "MB", "GB", "TB"};
+    private static final String[] RATE_UNITS = {"B/s", "KB/s", "MB/s", "GB/s"};
+    private static final long[] POW10 = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+    // Largest magnitude whose value * 10^decimals still fits a long, per decimals (0-6)
+    private static final double[] FIXED_LIMIT = {1e18, 1e17, 1e16, 1e15, 1e14, 1e13, 1e12};
+
+    private HumanFormatter() {}
+
+    /** Appends e.g. "512 B" or "3.4 GB" (1024-based, one decimal above bytes). */
+    public static StringBuilder appendBytes(StringBuilder sb, long bytes) {
+        return appendScaled(sb, (double) bytes, BYTE_UNITS);
+    }
+
+    /** Appends a per-second rate such as "1.2 MB/s" for {@code bytesDelta} over {@code millisDelta}. */
+    public static StringBuilder appendBytesPerSec(StringBuilder sb, long bytesDelta, long millisDelta) {
+        return appendScaled(sb, (bytesDelta * 1000.0) / Math.max(1.0, millisDelta), RATE_UNITS);
+    }
+
+    /** Appends {@code pct} rounded to {@code decimals} places followed by '%'. */
+    public static StringBuilder appendPercent(StringBuilder sb, double pct, int decimals) {
+        return appendFixed(sb, pct, decimals).append('%');
+    }
+
+    /**
+     * Appends {@code value} rounded half-up to {@code decimals} (0-6) places. Magnitudes too
+     * large for that many places (already past a double's precision) are appended as a whole
+     * number, and beyond the range of a long in exponent form.
+     */
+    public static StringBuilder appendFixed(StringBuilder sb, double value, int decimals) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return sb.append('-');
+        }
+        double abs = Math.abs(value);
+        if (abs >= FIXED_LIMIT[decimals]) {
+            return abs < 9e18 ? sb.append(Math.round(value)) : sb.append(value);
+        }
+        long scaled = Math.round(abs * POW10[decimals]);
+        if (value < 0 && scaled != 0) {
+            sb.append('-');
+        }
+        sb.append(scaled / POW10[decimals]);
+        if (decimals > 0) {
+            sb.append('.');
+            long frac = scaled % POW10[decimals];
+            for (int i = decimals - 1; i >= 0; i--) {
+                sb.append((char) ('0' + (frac / POW10[i]) % 10));
+            }
+        }
+        return sb;
+    }
+
+    private static StringBuilder appendScaled(StringBuilder sb, double value, String[] units) {
+        int u = 0;
+        while (value >= 1024 && u < units.length - 1) {
+            value /= 1024.0;
+            u++;
+        }
+        if (u == 0) return sb.append((long) value).append(' ').append(units[0]);
+        return appendFixed(sb, value, 1).append(' ').append(units[u]);
+    }
+
+    /**
+     * A reusable text slot: {@link #begin()} returns a cleared builder to format into and
+     * {@link #commit()} returns the previous String instance when the content is unchanged,
+     * so callers can skip setText by reference comparison. Not thread-safe.
+     */
+    public static final class CachedText {
+        private final StringBuilder builder = new StringBuilder(32);
+        private String last;
+
+        public StringBuilder begin() {
+            builder.setLength(0);
+            return builder;
+        }
+
+        public String commit() {
+            if (last == null || !last.contentEquals(builder)) {
+                last = builder.toString();
+            }
+            return last;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.resourcemapperapp;
 
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 import android.widget.TextView;
 
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
 import androidx.activity.EdgeToEdge;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.graphics.Insets;
@@ -21,15 +24,12 @@ public class MainActivity extends AppCompatActivity {
     private TextView osValue;
     private TextView storageValue;
     private TextView performanceValue;
-    private StatsProvider statsProvider;
-    private final Handler handler = new Handler(Looper.getMainLooper());
-    private final Runnable updateTask = new Runnable() {
-        @Override
-        public void run() {
-            updateStats();
-            handler.postDelayed(this, 1000);
-        }
-    };
+    private TextView networkValue;
+    private TextView recordValue;
+    // Shared engine collects on the sampler thread; only setText runs on the main thread
+    private SamplingEngine engine;
+    private final SamplingEngine.Listener engineListener = e -> updateStats(e.getSnapshot());
+    private StatsProvider.Snapshot shownSnapshot; // last snapshot applied to the views
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -50,7 +50,9 @@ public class MainActivity extends AppCompatActivity {
         osValue = findViewById(R.id.osValue);
         storageValue = findViewById(R.id.storageValue);
         performanceValue = findViewById(R.id.performanceValue);
-        statsProvider = new StatsProvider(this);
+        networkValue = findViewById(R.id.networkValue);
+        recordValue = findViewById(R.id.recordValue);
+        engine = SamplingEngine.get(this);
         android.view.View deviceRow = findViewById(R.id.deviceRow);
         if (deviceRow != null) {
             deviceRow.setOnClickListener(v -> openDeviceDetails());
@@ -83,34 +85,89 @@ public class MainActivity extends AppCompatActivity {
         if (performanceRow != null) {
             performanceRow.setOnClickListener(v -> openPerformanceDetails());
         }
+        android.view.View networkRow = findViewById(R.id.networkRow);
+        if (networkRow != null) {
+            networkRow.setOnClickListener(v -> openNetworkDetails());
+        }
+        android.view.View recordRow = findViewById(R.id.recordRow);
+        if (recordRow != null) {
+            recordRow.setOnClickListener(v -> toggleRecording());
+        }
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        handler.post(updateTask);
+        shownSnapshot = null; // views may have been recreated; apply everything once
+        // Show the last published snapshot right away, then follow the engine's ticks
+        StatsProvider.Snapshot s = engine.getSnapshot();
+        if (s != null) {
+            updateStats(s);
+        }
+        showRecording();
+        engine.addListener(engineListener);
     }
 
     @Override
     protected void onPause() {
         super.onPause();
-        handler.removeCallbacks(updateTask);
+        engine.removeListener(engineListener);
     }
 
-    private void updateStats() {
-        StatsProvider.Snapshot s = statsProvider.collectSnapshot();
-        // Show only the model name beside the Device label
-        deviceValue.setText(getPrettyDeviceName());
+    private void updateStats(StatsProvider.Snapshot s) {
+        // Unchanged values keep the same String instance, so skip setText (and relayout) for them
+        StatsProvider.Snapshot prev = shownSnapshot;
+        shownSnapshot = s;
+        if (prev == null) {
+            // Show only the model name beside the Device label
+            deviceValue.setText(getPrettyDeviceName());
+            performanceValue.setText("-"); // Performance score requires running benchmark
+        }
 
         // Show only the processor model in the overview row
-        processorValue.setText(s.processorModel != null ? s.processorModel : "-");
+        if (prev == null || prev.processorModel != s.processorModel) {
+            processorValue.setText(s.processorModel != null ? s.processorModel : "-");
+        }
+        setIfChanged(memValue, prev != null ? prev.memHuman : null, s.memHuman);
+        setIfChanged(displayValue, prev != null ? prev.displayHuman : null, s.displayHuman);
+        setIfChanged(batteryValue, prev != null ? prev.batteryHuman : null, s.batteryHuman);
+        setIfChanged(osValue, prev != null ? prev.osHuman : null, s.osHuman);
+        setIfChanged(storageValue, prev != null ? prev.storageHuman : null, s.storageHuman);
+        setIfChanged(networkValue, prev != null ? prev.networkHuman : null, s.networkHuman);
+        // Catches a recording the engine ended after a write failure
+        showRecording();
+    }
 
-        memValue.setText(s.memHuman);
-        displayValue.setText(s.displayHuman);
-        batteryValue.setText(s.batteryHuman);
-        osValue.setText(s.osHuman);
-        storageValue.setText(s.storageHuman);
-        performanceValue.setText("-"); // Performance score requires running benchmark
+    /**
+     * Starts or stops streaming every tick into a session file for soak tests. Files go to
+     * the app's external files directory so they can be pulled with adb; the engine keeps
+     * sampling while the app is in the background until the recording is stopped.
+     */
+    private void toggleRecording() {
+        if (engine.getRecordingFile() != null) {
+            engine.stopRecording();
+        } else {
+            File dir = getExternalFilesDir(null);
+            if (dir == null) dir = getFilesDir();
+            String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+            engine.startRecording(new File(dir, "session-" + stamp + ".rms"));
+        }
+        showRecording();
+    }
+
+    private void showRecording() {
+        if (recordValue == null) return;
+        File f = engine.getRecordingFile();
+        String text = f != null ? f.getName() : "Off";
+        if (!text.contentEquals(recordValue.getText())) {
+            recordValue.setText(text);
+        }
+    }
+
+    private static void setIfChanged(TextView view, String previous, String current) {
+        if (previous != current || previous == null) {
+            view.setText(current);
+        }
     }
 
     private String getPrettyDeviceName() {
@@ -139,7 +196,8 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void openDeviceDetails() {
-        String info = statsProvider.collectSnapshot().deviceHuman;
+        StatsProvider.Snapshot s = engine.getSnapshot();
+        String info = s != null ? s.deviceHuman : "-";
         android.content.Intent intent = new android.content.Intent(this, DeviceActivity.class);
         intent.putExtra("device_info", info);
         startActivity(intent);
@@ -179,4 +237,9 @@ public class MainActivity extends AppCompatActivity {
         android.content.Intent intent = new android.content.Intent(this, PerformanceActivity.class);
         startActivity(intent);
     }
+
+    private void openNetworkDetails() {
+        android.content.Intent intent = new android.content.Intent(this, NetworkActivity.class);
+        startActivity(intent);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,212 @@
+package com.example.resourcemapperapp;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Dense matrix multiply C = A x B on flat row-major double[] storage. The kernel is tiled
+ * (blocks of rows of A, of k and of columns, with the tile edge chosen so three tiles fit in
+ * half of the L2 cache) and uses i-k-j order inside a tile, so the innermost loop streams
+ * contiguous rows of B and C instead of striding down B's columns. The same kernel runs on
+ * one thread and split by row blocks over a fork-join pool; results are reported in
+ * GFLOP/s (2 n^3 floating-point operations per multiply) so they compare across sizes.
+ */
+public class MatrixBenchmark {
+
+    public static class MatrixResults {
+        public int size;
+        public int tile;
+        public int threads;
+        public long singleThreadMs;
+        public long multiThreadMs;
+        public double singleThreadGflops;
+        public double multiThreadGflops;
+    }
+
+    public static final int DEFAULT_SIZE = 512;
+
+    private static final int DEFAULT_TILE = 64;
+    private static final int REPEATS = 3;
+
+    private final int n;
+    private final int tile;
+
+    public MatrixBenchmark() {
+        this(DEFAULT_SIZE);
+    }
+
+    public MatrixBenchmark(int n) {
+        this(n, tileForCache(readCacheBytes(2)));
+    }
+
+    public MatrixBenchmark(int n, int tile) {
+        this.n = Math.max(1, n);
+        this.tile = Math.max(8, tile);
+    }
+
+    public int getTile() {
+        return tile;
+    }
+
+    /** Best-of-three single-thread and fork-join multiplies of random n x n matrices. */
+    public MatrixResults run() {
+        double[] a = randomMatrix(n, 1);
+        double[] b = randomMatrix(n, 2);
+        double[] c = new double[n * n];
+        MatrixResults results = new MatrixResults();
+        results.size = n;
+        results.tile = tile;
+
+        long best = Long.MAX_VALUE;
+        for (int rep = 0; rep < REPEATS; rep++) {
+            long t0 = System.nanoTime();
+            multiply(a, b, c);
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        results.singleThreadMs = best / 1_000_000L;
+        results.singleThreadGflops = gflops(best);
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        results.threads = threads;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            best = Long.MAX_VALUE;
+            for (int rep = 0; rep < REPEATS; rep++) {
+                long t0 = System.nanoTime();
+                multiplyParallel(pool, a, b, c);
+                best = Math.min(best, System.nanoTime() - t0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        results.multiThreadMs = best / 1_000_000L;
+        results.multiThreadGflops = gflops(best);
+        return results;
+    }
+
+    /** c = a x b on one thread; all arrays are n x n row-major. */
+    public void multiply(double[] a, double[] b, double[] c) {
+        multiplyRows(a, b, c, 0, n);
+    }
+
+    /** c = a x b with row blocks of one tile forked across {@code pool}. */
+    public void multiplyParallel(ForkJoinPool pool, double[] a, double[] b, double[] c) {
+        pool.invoke(new RowBlock(a, b, c, 0, n));
+    }
+
+    /** Computes rows [rowFrom, rowTo) of c; rows are independent, so blocks can run concurrently. */
+    private void multiplyRows(double[] a, double[] b, double[] c, int rowFrom, int rowTo) {
+        Arrays.fill(c, rowFrom * n, rowTo * n, 0.0);
+        for (int ii = rowFrom; ii < rowTo; ii += tile) {
+            int iEnd = Math.min(ii + tile, rowTo);
+            for (int kk = 0; kk < n; kk += tile) {
+                int kEnd = Math.min(kk + tile, n);
+                for (int jj = 0; jj < n; jj += tile) {
+                    int jEnd = Math.min(jj + tile, n);
+                    for (int i = ii; i < iEnd; i++) {
+                        int rowA = i * n;
+                        int rowC = i * n;
+                        for (int k = kk; k < kEnd; k++) {
+                            double aik = a[rowA + k];
+                            int rowB = k * n;
+                            for (int j = jj; j < jEnd; j++) {
+                                c[rowC + j] += aik * b[rowB + j];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private final class RowBlock extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] a;
+        private final double[] b;
+        private final double[] c;
+        private final int from;
+        private final int to;
+
+        RowBlock(double[] a, double[] b, double[] c, int from, int to) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= tile) {
+                multiplyRows(a, b, c, from, to);
+                return;
+            }
+            // Split on a tile boundary so each leaf works on whole row tiles
+            int mid = from + ((to - from) / 2 + tile - 1) / tile * tile;
+            if (mid >= to) mid = from + tile;
+            invokeAll(new RowBlock(a, b, c, from, mid), new RowBlock(a, b, c, mid, to));
+        }
+    }
+
+    private double gflops(long nanos) {
+        return nanos > 0 ? 2.0 * n * n * (double) n / nanos : 0;
+    }
+
+    /** n x n row-major matrix of uniform [0, 1) values, reproducible from {@code seed}. */
+    static double[] randomMatrix(int n, long seed) {
+        Random random = new Random(seed);
+        double[] m = new double[n * n];
+        for (int i = 0; i < m.length; i++) m[i] = random.nextDouble();
+        return m;
+    }
+
+    /** Tile edge (multiple of 8, 16-256) such that three tiles of doubles fill half the cache. */
+    static int tileForCache(long cacheBytes) {
+        if (cacheBytes <= 0) return DEFAULT_TILE;
+        int edge = (int) Math.sqrt(cacheBytes / 2.0 / (3 * 8));
+        return Math.max(16, Math.min(256, edge / 8 * 8));
+    }
+
+    /** Size of cpu0's highest-level data or unified cache (L3/SLC where exposed), or -1. */
+    static long readLastLevelCacheBytes() {
+        for (int level = 4; level >= 1; level--) {
+            long bytes = readCacheBytes(level);
+            if (bytes > 0) return bytes;
+        }
+        return -1L;
+    }
+
+    /** Size of cpu0's data or unified cache at {@code level} from sysfs, or -1. */
+    static long readCacheBytes(int level) {
+        for (int index = 0; index < 8; index++) {
+            String base = "/sys/devices/system/cpu/cpu0/cache/index" + index + "/";
+            ProcFileReader levelFile = new ProcFileReader(base + "level", 64);
+            long l = levelFile.readLong(-1L);
+            levelFile.close();
+            if (l < 0) break;
+            if (l != level) continue;
+            ProcFileReader type = new ProcFileReader(base + "type", 64);
+            boolean instruction = type.read() && type.startsWith(0, ProcFileReader.ascii("Instruction"));
+            type.close();
+            if (instruction) continue;
+            // "2048K" or "1M"
+            ProcFileReader size = new ProcFileReader(base + "size", 64);
+            try {
+                if (!size.read()) return -1L;
+                long value = size.parseLong(0, -1L);
+                if (value < 0) return -1L;
+                int unit = size.skipToken(0) - 1;
+                byte suffix = unit >= 0 ? size.buffer()[unit] : 0;
+                if (suffix == 'K') return value * 1024;
+                if (suffix == 'M') return value * 1024 * 1024;
+                return value;
+            } finally {
+                size.close();
+            }
+        }
+        return -1L;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.resourcemapperapp;
+
+import java.util.Arrays;
+
+/**
+ * Table-driven parser for /proc/meminfo and /proc/vmstat. Each file is read once per
+ * {@link #sample()} into a reusable buffer; every line's key is hashed and looked up in a
+ * precomputed open-addressing table, and the value is stored in a primitive long[] at the
+ * key's fixed index. Absent keys read as -1. meminfo values are in kB, vmstat values are
+ * raw counters (mostly pages or events).
+ */
+public class MemInfoParser {
+
+    // /proc/meminfo (kB)
+    public static final int MEM_TOTAL = 0;
+    public static final int MEM_FREE = 1;
+    public static final int MEM_AVAILABLE = 2;
+    public static final int BUFFERS = 3;
+    public static final int CACHED = 4;
+    public static final int SWAP_CACHED = 5;
+    public static final int ACTIVE = 6;
+    public static final int INACTIVE = 7;
+    public static final int ACTIVE_ANON = 8;
+    public static final int INACTIVE_ANON = 9;
+    public static final int ACTIVE_FILE = 10;
+    public static final int INACTIVE_FILE = 11;
+    public static final int UNEVICTABLE = 12;
+    public static final int MLOCKED = 13;
+    public static final int SWAP_TOTAL = 14;
+    public static final int SWAP_FREE = 15;
+    public static final int DIRTY = 16;
+    public static final int WRITEBACK = 17;
+    public static final int ANON_PAGES = 18;
+    public static final int MAPPED = 19;
+    public static final int SHMEM = 20;
+    public static final int SLAB = 21;
+    public static final int S_RECLAIMABLE = 22;
+    public static final int S_UNRECLAIM = 23;
+    public static final int KERNEL_STACK = 24;
+    public static final int PAGE_TABLES = 25;
+    public static final int COMMIT_LIMIT = 26;
+    public static final int COMMITTED_AS = 27;
+    public static final int VMALLOC_USED = 28;
+    public static final int ION_TOTAL = 29;
+    public static final int COMPRESSED = 30;
+    // /proc/vmstat (counters)
+    public static final int PGPGIN = 31;
+    public static final int PGPGOUT = 32;
+    public static final int PSWPIN = 33;
+    public static final int PSWPOUT = 34;
+    public static final int PGFAULT = 35;
+    public static final int PGMAJFAULT = 36;
+    public static final int WORKINGSET_REFAULT = 37;
+    public static final int WORKINGSET_REFAULT_ANON = 38;
+    public static final int WORKINGSET_REFAULT_FILE = 39;
+    public static final int ALLOCSTALL = 40;
+    public static final int ALLOCSTALL_DMA = 41;
+    public static final int ALLOCSTALL_DMA32 = 42;
+    public static final int ALLOCSTALL_NORMAL = 43;
+    public static final int ALLOCSTALL_MOVABLE = 44;
+    public static final int PGSCAN_KSWAPD = 45;
+    public static final int PGSCAN_DIRECT = 46;
+    public static final int PGSTEAL_KSWAPD = 47;
+    public static final int PGSTEAL_DIRECT = 48;
+    public static final int OOM_KILL = 49;
+
+    public static final String[] KEYS = {
+            "MemTotal", "MemFree", "MemAvailable", "Buffers", "Cached", "SwapCached",
+            "Active", "Inactive", "Active(anon)", "Inactive(anon)", "Active(file)", "Inactive(file)",
+            "Unevictable", "Mlocked", "SwapTotal", "SwapFree", "Dirty", "Writeback",
+            "AnonPages", "Mapped", "Shmem", "Slab", "SReclaimable", "SUnreclaim",
+            "KernelStack", "PageTables", "CommitLimit", "Committed_AS", "VmallocUsed", "IonTotal",
+            "Compressed",
+            "pgpgin", "pgpgout", "pswpin", "pswpout", "pgfault", "pgmajfault",
+            "workingset_refault", "workingset_refault_anon", "workingset_refault_file",
+            "allocstall", "allocstall_dma", "allocstall_dma32", "allocstall_normal", "allocstall_movable",
+            "pgscan_kswapd", "pgscan_direct", "pgsteal_kswapd", "pgsteal_direct", "oom_kill"
+    };
+
+    private static final int TABLE_SIZE = 256; // power of two, > 2x KEYS.length
+    private static final byte[][] KEY_BYTES = new byte[KEYS.length][];
+    private static final int[] TABLE = new int[TABLE_SIZE];
+
+    static {
+        Arrays.fill(TABLE, -1);
+        for (int i = 0; i < KEYS.length; i++) {
+            KEY_BYTES[i] = ProcFileReader.ascii(KEYS[i]);
+            int slot = hash(KEY_BYTES[i], 0, KEY_BYTES[i].length) & (TABLE_SIZE - 1);
+            while (TABLE[slot] != -1) slot = (slot + 1) & (TABLE_SIZE - 1);
+            TABLE[slot] = i;
+        }
+    }
+
+    private final ProcFileReader meminfo;
+    private final ProcFileReader vmstat;
+    private final long[] values = new long[KEYS.length];
+
+    public MemInfoParser() {
+        this("/proc/meminfo", "/proc/vmstat");
+    }
+
+    /** Alternate paths, e.g. recorded fixture files. */
+    public MemInfoParser(String meminfoPath, String vmstatPath) {
+        meminfo = new ProcFileReader(meminfoPath);
+        vmstat = new ProcFileReader(vmstatPath);
+        Arrays.fill(values, -1L);
+    }
+
+    /** Re-reads both files; returns false if /proc/meminfo could not be read. */
+    public boolean sample() {
+        Arrays.fill(values, -1L);
+        boolean ok = meminfo.read();
+        if (ok) parse(meminfo, (byte) ':');
+        if (vmstat.read()) parse(vmstat, (byte) ' ');
+        return ok;
+    }
+
+    /** Value for a key index, or -1 if the kernel does not report it. */
+    public long get(int key) {
+        return values[key];
+    }
+
+    /** Refaults from the legacy counter, or the anon + file split on kernels 5.9+. */
+    public long getWorkingsetRefault() {
+        if (values[WORKINGSET_REFAULT] >= 0) return values[WORKINGSET_REFAULT];
+        return addKnown(values[WORKINGSET_REFAULT_ANON], values[WORKINGSET_REFAULT_FILE]);
+    }
+
+    /** Direct-reclaim stalls from the legacy counter, or the per-zone counters on newer kernels. */
+    public long getAllocStall() {
+        if (values[ALLOCSTALL] >= 0) return values[ALLOCSTALL];
+        return addKnown(addKnown(values[ALLOCSTALL_DMA], values[ALLOCSTALL_DMA32]),
+                addKnown(values[ALLOCSTALL_NORMAL], values[ALLOCSTALL_MOVABLE]));
+    }
+
+    /** Sum of the values that are present; -1 only if both are absent. */
+    private static long addKnown(long a, long b) {
+        if (a < 0) return b;
+        if (b < 0) return a;
+        return a + b;
+    }
+
+    private void parse(ProcFileReader reader, byte separator) {
+        byte[] buf = reader.buffer();
+        int len = reader.length();
+        int pos = 0;
+        while (pos < len) {
+            int keyEnd = pos;
+            while (keyEnd < len && buf[keyEnd] != separator && buf[keyEnd] != '\n') keyEnd++;
+            if (keyEnd < len && buf[keyEnd] == separator) {
+                int key = lookup(buf, pos, keyEnd);
+                if (key >= 0) {
+                    values[key] = reader.parseLong(keyEnd + 1, -1L);
+                }
+            }
+            pos = reader.nextLine(keyEnd);
+        }
+    }
+
+    private static int lookup(byte[] buf, int start, int end) {
+        int slot = hash(buf, start, end) & (TABLE_SIZE - 1);
+        int len = end - start;
+        while (TABLE[slot] != -1) {
+            byte[] key = KEY_BYTES[TABLE[slot]];
+            if (key.length == len) {
+                int i = 0;
+                while (i < len && key[i] == buf[start + i]) i++;
+                if (i == len) return TABLE[slot];
+            }
+            slot = (slot + 1) & (TABLE_SIZE - 1);
+        }
+        return -1;
+    }
+
+    private static int hash(byte[] b, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + b[i];
+        }
+        return h ^ (h >>> 16);
+    }
+}
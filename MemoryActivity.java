@@ -12,9 +12,10 @@ public class MemoryActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_memory);
 
-        StatsProvider provider = new StatsProvider(this);
-        StatsProvider.MemoryDetails d = provider.collectMemoryDetails();
+        SamplingEngine.get(this).request(StatsProvider::collectMemoryDetails, this::showMemoryDetails);
+    }
 
+    private void showMemoryDetails(StatsProvider.MemoryDetails d) {
         ((TextView) findViewById(R.id.rowDesignCapacity)).setText(d.designCapacity);
         ((TextView) findViewById(R.id.rowMemoryType)).setText(d.memoryType);
         ((TextView) findViewById(R.id.rowCapacity)).setText(d.capacity);
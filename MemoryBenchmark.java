@@ -0,0 +1,255 @@
+package com.example.resourcemapperapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Memory subsystem benchmark. STREAM copy/scale/add/triad run over double[] arrays of at
+ * least 4x the last-level cache (STREAM's rule, heap permitting), once on one thread and once
+ * split across all cores (best of several repetitions, as STREAM reports). A pointer-chasing
+ * test then walks a random single-cycle permutation of cache lines for working sets from
+ * 16 KiB up to a quarter of the heap limit; each load depends on the previous one, so the
+ * time per step is the load-to-use latency of whichever level (L1, L2, L3/SLC, DRAM) the
+ * working set fits in. Run off the main thread.
+ */
+public class MemoryBenchmark {
+
+    public static class MemoryResults {
+        public long streamArrayBytes; // per array; three arrays are used
+        public long lastLevelCacheBytes; // from sysfs, -1 if not exposed
+        public double copyMBps;
+        public double scaleMBps;
+        public double addMBps;
+        public double triadMBps;
+        public int threads;
+        public double copyMBpsAllCores;
+        public double scaleMBpsAllCores;
+        public double addMBpsAllCores;
+        public double triadMBpsAllCores;
+        public long[] latencySizesBytes; // working-set sizes of the latency curve
+        public double[] latencyNs; // average dependent-load latency per size
+        public String latencyCurve; // "16 KB 1.2 ns, 32 KB 1.2 ns, ..."
+    }
+
+    public static final int DEFAULT_STREAM_LENGTH = 2 * 1024 * 1024; // 16 MiB per array, the floor
+    public static final long MIN_CHASE_BYTES = 16L * 1024;
+    public static final long DEFAULT_MAX_CHASE_BYTES = 256L * 1024 * 1024;
+
+    // Each STREAM array is at least this multiple of the last-level cache
+    private static final int STREAM_LLC_MULTIPLE = 4;
+    // Heap shares: the three STREAM arrays together, and the largest chase array
+    private static final int STREAM_HEAP_DIVISOR = 2;
+    private static final int CHASE_HEAP_DIVISOR = 4;
+
+    private static final int STREAM_REPEATS = 5;
+    private static final int LINE_INTS = 16; // 64-byte cache line of ints
+    private static final int MIN_CHASE_STEPS = 1 << 20;
+    private static final int MAX_CHASE_STEPS = 1 << 23;
+    private static final double SCALAR = 3.0;
+
+    private final int streamLength;
+    private final long maxChaseBytes;
+    private long sink;
+
+    /** Sizes from the last-level cache and the heap limit (Runtime.maxMemory()). */
+    public MemoryBenchmark() {
+        this(streamLengthFor(MatrixBenchmark.readLastLevelCacheBytes(), Runtime.getRuntime().maxMemory()),
+                Math.min(DEFAULT_MAX_CHASE_BYTES, Runtime.getRuntime().maxMemory() / CHASE_HEAP_DIVISOR));
+    }
+
+    public MemoryBenchmark(int streamLength, long maxChaseBytes) {
+        this.streamLength = Math.max(1024, streamLength);
+        this.maxChaseBytes = Math.max(MIN_CHASE_BYTES, maxChaseBytes);
+    }
+
+    public MemoryResults run() {
+        MemoryResults results = new MemoryResults();
+        results.streamArrayBytes = streamLength * 8L;
+        results.lastLevelCacheBytes = MatrixBenchmark.readLastLevelCacheBytes();
+        runStream(results);
+        runLatencyCurve(results);
+        return results;
+    }
+
+    /**
+     * Doubles per STREAM array: at least {@link #DEFAULT_STREAM_LENGTH} and 4x {@code llcBytes},
+     * but the three arrays never take more than half of {@code maxHeapBytes}. A small heap can
+     * therefore leave the arrays under 4x the cache; formatSummary flags that.
+     */
+    static int streamLengthFor(long llcBytes, long maxHeapBytes) {
+        long perArray = Math.max(DEFAULT_STREAM_LENGTH * 8L, llcBytes * STREAM_LLC_MULTIPLE);
+        perArray = Math.min(perArray, maxHeapBytes / STREAM_HEAP_DIVISOR / 3);
+        return (int) Math.min(Integer.MAX_VALUE - 8, perArray / 8);
+    }
+
+    private void runStream(MemoryResults results) {
+        double[] a = new double[streamLength];
+        double[] b = new double[streamLength];
+        double[] c = new double[streamLength];
+        for (int i = 0; i < streamLength; i++) {
+            a[i] = 1.0;
+            b[i] = 2.0;
+            c[i] = 0.0;
+        }
+
+        long[] best = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+        for (int rep = 0; rep < STREAM_REPEATS; rep++) {
+            for (int kernel = 0; kernel < 4; kernel++) {
+                long t0 = System.nanoTime();
+                streamKernel(kernel, a, b, c, 0, streamLength);
+                best[kernel] = Math.min(best[kernel], System.nanoTime() - t0);
+            }
+        }
+        results.copyMBps = mbPerSec(2, best[0]);
+        results.scaleMBps = mbPerSec(2, best[1]);
+        results.addMBps = mbPerSec(3, best[2]);
+        results.triadMBps = mbPerSec(3, best[3]);
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        results.threads = threads;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long[] bestAll = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+            List<Callable<Void>> tasks = new ArrayList<>(threads);
+            for (int rep = 0; rep < STREAM_REPEATS; rep++) {
+                for (int kernel = 0; kernel < 4; kernel++) {
+                    tasks.clear();
+                    final int k = kernel;
+                    for (int t = 0; t < threads; t++) {
+                        final int from = (int) ((long) streamLength * t / threads);
+                        final int to = (int) ((long) streamLength * (t + 1) / threads);
+                        tasks.add(() -> {
+                            streamKernel(k, a, b, c, from, to);
+                            return null;
+                        });
+                    }
+                    long t0 = System.nanoTime();
+                    for (Future<Void> f : executor.invokeAll(tasks)) {
+                        f.get();
+                    }
+                    bestAll[kernel] = Math.min(bestAll[kernel], System.nanoTime() - t0);
+                }
+            }
+            results.copyMBpsAllCores = mbPerSec(2, bestAll[0]);
+            results.scaleMBpsAllCores = mbPerSec(2, bestAll[1]);
+            results.addMBpsAllCores = mbPerSec(3, bestAll[2]);
+            results.triadMBpsAllCores = mbPerSec(3, bestAll[3]);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Leave all-core figures at 0
+        } finally {
+            executor.shutdown();
+        }
+        sink += (long) (a[streamLength / 2] + c[streamLength - 1]);
+    }
+
+    /** 0 copy c=a, 1 scale b=s*c, 2 add c=a+b, 3 triad a=b+s*c over [from, to). */
+    private static void streamKernel(int kernel, double[] a, double[] b, double[] c, int from, int to) {
+        switch (kernel) {
+            case 0:
+                for (int i = from; i < to; i++) c[i] = a[i];
+                break;
+            case 1:
+                for (int i = from; i < to; i++) b[i] = SCALAR * c[i];
+                break;
+            case 2:
+                for (int i = from; i < to; i++) c[i] = a[i] + b[i];
+                break;
+            default:
+                for (int i = from; i < to; i++) a[i] = b[i] + SCALAR * c[i];
+                break;
+        }
+    }
+
+    private void runLatencyCurve(MemoryResults results) {
+        int points = 0;
+        for (long size = MIN_CHASE_BYTES; size <= maxChaseBytes; size *= 2) points++;
+        long[] sizes = new long[points];
+        double[] latency = new double[points];
+        Random random = new Random(7);
+        int measured = 0;
+        for (long size = MIN_CHASE_BYTES; size <= maxChaseBytes; size *= 2) {
+            try {
+                latency[measured] = chase(new int[(int) (size / 4)], random);
+            } catch (OutOfMemoryError e) {
+                // Heap limit reached; the curve ends at the last size that fit
+                break;
+            }
+            sizes[measured] = size;
+            measured++;
+        }
+        results.latencySizesBytes = Arrays.copyOf(sizes, measured);
+        results.latencyNs = Arrays.copyOf(latency, measured);
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < measured; i++) {
+            if (sb.length() > 0) sb.append(", ");
+            HumanFormatter.appendBytes(sb, sizes[i]).append(' ');
+            HumanFormatter.appendFixed(sb, latency[i], 1).append(" ns");
+        }
+        results.latencyCurve = sb.length() == 0 ? "-" : sb.toString();
+    }
+
+    /**
+     * Links the first int of every cache line into one random cycle (Sattolo's shuffle, so
+     * hardware prefetchers cannot predict it) and returns nanoseconds per dependent load.
+     */
+    private double chase(int[] chain, Random random) {
+        int lines = chain.length / LINE_INTS;
+        int[] order = new int[lines];
+        for (int i = 0; i < lines; i++) order[i] = i;
+        for (int i = lines - 1; i > 0; i--) {
+            int j = random.nextInt(i);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        for (int i = 0; i < lines; i++) {
+            chain[order[i] * LINE_INTS] = order[(i + 1) % lines] * LINE_INTS;
+        }
+
+        int steps = Math.max(MIN_CHASE_STEPS, Math.min(MAX_CHASE_STEPS, lines * 4));
+        int p = 0;
+        // Warm caches and TLB with one lap (bounded for the largest sets)
+        for (int i = Math.min(lines, MAX_CHASE_STEPS); i > 0; i--) p = chain[p];
+        long t0 = System.nanoTime();
+        for (int i = steps; i > 0; i--) p = chain[p];
+        long elapsed = System.nanoTime() - t0;
+        sink += p;
+        return elapsed / (double) steps;
+    }
+
+    private double mbPerSec(int arraysTouched, long nanos) {
+        double bytes = (double) arraysTouched * streamLength * 8;
+        return nanos > 0 && nanos != Long.MAX_VALUE ? (bytes / (1024.0 * 1024.0)) / (nanos / 1e9) : 0;
+    }
+
+    /** "Triad 9120.4 MB/s, 8 threads 21044.9 MB/s; latency 16 KB 1.2 ns, ..., 256 MB 118.3 ns". */
+    public static String formatSummary(MemoryResults r) {
+        if (r == null) return "-";
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("Triad ");
+        HumanFormatter.appendFixed(sb, r.triadMBps, 1).append(" MB/s, ").append(r.threads)
+                .append(r.threads == 1 ? " thread " : " threads ");
+        HumanFormatter.appendFixed(sb, r.triadMBpsAllCores, 1).append(" MB/s");
+        if (r.lastLevelCacheBytes > 0 && r.streamArrayBytes < r.lastLevelCacheBytes * STREAM_LLC_MULTIPLE) {
+            sb.append(" (arrays under 4x the ");
+            HumanFormatter.appendBytes(sb, r.lastLevelCacheBytes).append(" cache; may be optimistic)");
+        }
+        sb.append("; latency ").append(r.latencyCurve);
+        return sb.toString();
+    }
+
+    /** Prevents the JIT from discarding loads whose values are otherwise unused. */
+    long getSink() {
+        return sink;
+    }
+}
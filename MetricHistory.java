@@ -0,0 +1,280 @@
+package com.example.resourcemapperapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-metric history fed by {@link SamplingEngine} once per tick. Each metric has its own
+ * {@link MetricRingBuffer} of raw samples (the default capacity holds one hour at 1 Hz)
+ * with {@link MetricRollup} levels attached for longer windows.
+ */
+public class MetricHistory {
+
+    public static final int DEFAULT_CAPACITY = 3600;
+
+    public final MetricRingBuffer cpuTotal;
+    public final MetricRingBuffer[] coreFreq;
+    public final MetricRingBuffer memAvailable;
+    public final MetricRingBuffer netRx;
+    public final MetricRingBuffer netTx;
+    public final MetricRingBuffer batteryVoltage;
+    public final MetricRingBuffer batteryCurrent;
+    public final MetricRingBuffer batteryTemperature;
+    public final MetricRingBuffer memStallSome;
+    public final MetricRingBuffer memStallFull;
+    public final MetricRingBuffer cpuStallSome;
+    public final MetricRingBuffer ioStallSome;
+    public final MetricRingBuffer ioStallFull;
+    public final MetricRingBuffer majorFaults;
+    public final MetricRingBuffer refaults;
+    public final MetricRingBuffer swapIns;
+    public final MetricRingBuffer allocStalls;
+    public final MetricRingBuffer diskReadBytes;
+    public final MetricRingBuffer diskWriteBytes;
+    public final MetricRingBuffer diskReadIops;
+    public final MetricRingBuffer diskWriteIops;
+    public final MetricRingBuffer diskReadLatency;
+    public final MetricRingBuffer diskWriteLatency;
+    public final MetricRingBuffer diskQueueDepth;
+    public final MetricRingBuffer[] zoneTemp; // per thermal zone, in ThermalSampler order
+    public final MetricRingBuffer[] coolingState; // per cooling device
+
+    private final List<MetricRingBuffer> all = new ArrayList<>();
+    private final int capacity;
+    // Per NetworkSampler interface; interfaces appear at run time, so these stay out of getAll().
+    // Replaced whole on the sampler thread so readers never see the three arrays out of step
+    private volatile Interfaces interfaces = new Interfaces(0);
+    private long lastBatterySampleMs = -1L;
+
+    public MetricHistory(int coreCount) {
+        this(coreCount, null, DEFAULT_CAPACITY);
+    }
+
+    /** @param thermal zones and cooling devices to keep history for; may be null */
+    public MetricHistory(int coreCount, ThermalSampler thermal) {
+        this(coreCount, thermal, DEFAULT_CAPACITY);
+    }
+
+    /** @param capacity raw samples kept per metric; older raw data is only available as rollups */
+    public MetricHistory(int coreCount, ThermalSampler thermal, int capacity) {
+        this.capacity = capacity;
+        cpuTotal = add(new MetricRingBuffer("cpu.total", "%", capacity));
+        coreFreq = new MetricRingBuffer[coreCount];
+        for (int i = 0; i < coreCount; i++) {
+            coreFreq[i] = add(new MetricRingBuffer("cpu" + i + ".freq", "kHz", capacity));
+        }
+        memAvailable = add(new MetricRingBuffer("mem.available", "B", capacity));
+        netRx = add(new MetricRingBuffer("net.rx", "B/s", capacity));
+        netTx = add(new MetricRingBuffer("net.tx", "B/s", capacity));
+        batteryVoltage = add(new MetricRingBuffer("battery.voltage", "mV", capacity));
+        batteryCurrent = add(new MetricRingBuffer("battery.current", "uA", capacity));
+        batteryTemperature = add(new MetricRingBuffer("battery.temperature", "C", capacity));
+        memStallSome = add(new MetricRingBuffer("psi.memory.some", "us/s", capacity));
+        memStallFull = add(new MetricRingBuffer("psi.memory.full", "us/s", capacity));
+        cpuStallSome = add(new MetricRingBuffer("psi.cpu.some", "us/s", capacity));
+        ioStallSome = add(new MetricRingBuffer("psi.io.some", "us/s", capacity));
+        ioStallFull = add(new MetricRingBuffer("psi.io.full", "us/s", capacity));
+        majorFaults = add(new MetricRingBuffer("vm.pgmajfault", "1/s", capacity));
+        refaults = add(new MetricRingBuffer("vm.workingset_refault", "1/s", capacity));
+        swapIns = add(new MetricRingBuffer("vm.pswpin", "1/s", capacity));
+        allocStalls = add(new MetricRingBuffer("vm.allocstall", "1/s", capacity));
+        diskReadBytes = add(new MetricRingBuffer("disk.read", "B/s", capacity));
+        diskWriteBytes = add(new MetricRingBuffer("disk.write", "B/s", capacity));
+        diskReadIops = add(new MetricRingBuffer("disk.read_iops", "1/s", capacity));
+        diskWriteIops = add(new MetricRingBuffer("disk.write_iops", "1/s", capacity));
+        diskReadLatency = add(new MetricRingBuffer("disk.read_latency", "ms", capacity));
+        diskWriteLatency = add(new MetricRingBuffer("disk.write_latency", "ms", capacity));
+        diskQueueDepth = add(new MetricRingBuffer("disk.queue", "", capacity));
+        int zones = thermal != null ? thermal.getZoneCount() : 0;
+        zoneTemp = new MetricRingBuffer[zones];
+        for (int i = 0; i < zones; i++) {
+            String name = "thermal" + thermal.getZoneId(i) + "." + thermal.getZoneType(i);
+            zoneTemp[i] = add(new MetricRingBuffer(name, "C", capacity));
+        }
+        int devices = thermal != null ? thermal.getCoolingDeviceCount() : 0;
+        coolingState = new MetricRingBuffer[devices];
+        for (int i = 0; i < devices; i++) {
+            String name = "cooling" + thermal.getCoolingDeviceId(i) + "." + thermal.getCoolingType(i);
+            coolingState[i] = add(new MetricRingBuffer(name, "", capacity));
+        }
+    }
+
+    private MetricRingBuffer add(MetricRingBuffer buffer) {
+        all.add(attach(buffer));
+        return buffer;
+    }
+
+    /** Upper bound on bytes held by all raw buffers and rollups; grows only when a network interface appears. */
+    public long getFootprintBytes() {
+        long bytes = 0;
+        for (MetricRingBuffer buffer : all) {
+            bytes += buffer.getRollup().getFootprintBytes();
+        }
+        Interfaces ifs = interfaces;
+        for (int i = 0; i < ifs.rx.length; i++) {
+            bytes += ifs.rx[i].getRollup().getFootprintBytes()
+                    + ifs.tx[i].getRollup().getFootprintBytes()
+                    + ifs.errors[i].getRollup().getFootprintBytes();
+        }
+        return bytes;
+    }
+
+    /** Interfaces with history, indexed as in NetworkSampler; every interface seen so far. */
+    public int getInterfaceCount() {
+        return interfaces.rx.length;
+    }
+
+    /** Receive rate of a NetworkSampler interface, "net.wlan0.rx" in B/s. */
+    public MetricRingBuffer getInterfaceRx(int iface) {
+        return interfaces.rx[iface];
+    }
+
+    public MetricRingBuffer getInterfaceTx(int iface) {
+        return interfaces.tx[iface];
+    }
+
+    /** Errors plus drops in both directions, per second; no samples under the TrafficStats fallback. */
+    public MetricRingBuffer getInterfaceErrors(int iface) {
+        return interfaces.errors[iface];
+    }
+
+    /** Appends the provider's latest primitive values; unknown values are skipped. */
+    public void record(StatsProvider provider, long nowMs) {
+        appendIfKnown(cpuTotal, nowMs, provider.getLastTotalCpuPercent());
+        CpuCoreSampler cores = provider.getCpuCoreSampler();
+        for (int i = 0; i < coreFreq.length && i < cores.getCoreCount(); i++) {
+            long khz = cores.getCurFreqKhz(i);
+            if (khz > 0) coreFreq[i].append(nowMs, khz);
+        }
+        long avail = provider.getLastMemAvailableBytes();
+        if (avail >= 0) memAvailable.append(nowMs, avail);
+        appendIfKnown(netRx, nowMs, provider.getLastNetRxBytesPerSec());
+        appendIfKnown(netTx, nowMs, provider.getLastNetTxBytesPerSec());
+        NetworkSampler network = provider.getNetworkSampler();
+        Interfaces ifs = interfaces;
+        if (network.getInterfaceCount() > ifs.rx.length) ifs = addInterfaces(ifs, network);
+        for (int i = 0; i < ifs.rx.length; i++) {
+            appendIfKnown(ifs.rx[i], nowMs, network.getRate(i, NetworkSampler.RX_BYTES));
+            appendIfKnown(ifs.tx[i], nowMs, network.getRate(i, NetworkSampler.TX_BYTES));
+            // NaN when the source has no error counters, so nothing is recorded
+            appendIfKnown(ifs.errors[i], nowMs, network.getRate(i, NetworkSampler.RX_ERRORS)
+                    + network.getRate(i, NetworkSampler.TX_ERRORS)
+                    + network.getRate(i, NetworkSampler.RX_DROPS)
+                    + network.getRate(i, NetworkSampler.TX_DROPS));
+        }
+
+        // Stall time per second; averaging a window of these gives stall time over that window
+        PressureMonitor pressure = provider.getPressureMonitor();
+        appendIfKnown(memStallSome, nowMs, pressure.getStallUsPerSec(PressureMonitor.MEMORY, PressureMonitor.SOME));
+        appendIfKnown(memStallFull, nowMs, pressure.getStallUsPerSec(PressureMonitor.MEMORY, PressureMonitor.FULL));
+        appendIfKnown(cpuStallSome, nowMs, pressure.getStallUsPerSec(PressureMonitor.CPU, PressureMonitor.SOME));
+        appendIfKnown(ioStallSome, nowMs, pressure.getStallUsPerSec(PressureMonitor.IO, PressureMonitor.SOME));
+        appendIfKnown(ioStallFull, nowMs, pressure.getStallUsPerSec(PressureMonitor.IO, PressureMonitor.FULL));
+        appendIfKnown(majorFaults, nowMs, pressure.getMajorFaultsPerSec());
+        appendIfKnown(refaults, nowMs, pressure.getRefaultsPerSec());
+        appendIfKnown(swapIns, nowMs, pressure.getSwapInsPerSec());
+        appendIfKnown(allocStalls, nowMs, pressure.getAllocStallsPerSec());
+
+        DiskStatsSampler disk = provider.getDiskStatsSampler();
+        appendIfKnown(diskReadBytes, nowMs, disk.getReadBytesPerSec());
+        appendIfKnown(diskWriteBytes, nowMs, disk.getWriteBytesPerSec());
+        appendIfKnown(diskReadIops, nowMs, disk.getReadIops());
+        appendIfKnown(diskWriteIops, nowMs, disk.getWriteIops());
+        appendIfKnown(diskReadLatency, nowMs, disk.getReadLatencyMs());
+        appendIfKnown(diskWriteLatency, nowMs, disk.getWriteLatencyMs());
+        appendIfKnown(diskQueueDepth, nowMs, disk.getQueueDepth());
+
+        // Sampled by StatsProvider.sampleProcessor() earlier in the same tick
+        ThermalSampler thermal = provider.getThermalSampler();
+        for (int i = 0; i < zoneTemp.length; i++) {
+            appendIfKnown(zoneTemp[i], nowMs, thermal.getTempC(i));
+        }
+        for (int i = 0; i < coolingState.length; i++) {
+            long state = thermal.getCoolingState(i);
+            if (state >= 0) coolingState[i].append(nowMs, state);
+        }
+
+        // Battery is refreshed on a slower cadence; only record fresh readings
+        long batteryMs = provider.getLastBatterySampleMs();
+        if (batteryMs > lastBatterySampleMs) {
+            lastBatterySampleMs = batteryMs;
+            if (provider.getLastBatteryVoltageMv() > 0) {
+                batteryVoltage.append(nowMs, provider.getLastBatteryVoltageMv());
+            }
+            if (provider.getLastBatteryCurrentUa() != Long.MIN_VALUE) {
+                batteryCurrent.append(nowMs, provider.getLastBatteryCurrentUa());
+            }
+            appendIfKnown(batteryTemperature, nowMs, provider.getLastBatteryTemperatureC());
+        }
+    }
+
+    /**
+     * Creates buffers for interfaces the sampler has discovered since the last record and
+     * publishes them together with the existing ones.
+     */
+    private Interfaces addInterfaces(Interfaces old, NetworkSampler network) {
+        int from = old.rx.length;
+        Interfaces ifs = new Interfaces(network.getInterfaceCount());
+        System.arraycopy(old.rx, 0, ifs.rx, 0, from);
+        System.arraycopy(old.tx, 0, ifs.tx, 0, from);
+        System.arraycopy(old.errors, 0, ifs.errors, 0, from);
+        for (int i = from; i < ifs.rx.length; i++) {
+            String prefix = "net." + network.getInterfaceName(i);
+            ifs.rx[i] = attach(new MetricRingBuffer(prefix + ".rx", "B/s", capacity));
+            ifs.tx[i] = attach(new MetricRingBuffer(prefix + ".tx", "B/s", capacity));
+            ifs.errors[i] = attach(new MetricRingBuffer(prefix + ".errors", "1/s", capacity));
+        }
+        interfaces = ifs;
+        return ifs;
+    }
+
+    private static MetricRingBuffer attach(MetricRingBuffer buffer) {
+        buffer.attachRollup(new MetricRollup(buffer));
+        return buffer;
+    }
+
+    private static void appendIfKnown(MetricRingBuffer buffer, long nowMs, float value) {
+        if (!Float.isNaN(value)) buffer.append(nowMs, value);
+    }
+
+    /**
+     * Fills {@code out} (one slot per metric, in {@link #getAll()} order) with the values
+     * recorded at {@code timestampMs}, or NaN for metrics without a sample at that time.
+     */
+    public void fillRow(long timestampMs, float[] out) {
+        for (int i = 0; i < all.size(); i++) {
+            MetricRingBuffer b = all.get(i);
+            out[i] = b.latestTimestamp() == timestampMs ? b.latest() : Float.NaN;
+        }
+    }
+
+    public String[] getNames() {
+        String[] names = new String[all.size()];
+        for (int i = 0; i < names.length; i++) names[i] = all.get(i).getName();
+        return names;
+    }
+
+    public String[] getUnits() {
+        String[] units = new String[all.size()];
+        for (int i = 0; i < units.length; i++) units[i] = all.get(i).getUnit();
+        return units;
+    }
+
+    public List<MetricRingBuffer> getAll() {
+        return Collections.unmodifiableList(all);
+    }
+
+    /** Per-interface buffers, filled before publication and never changed after. */
+    private static final class Interfaces {
+        final MetricRingBuffer[] rx;
+        final MetricRingBuffer[] tx;
+        final MetricRingBuffer[] errors;
+
+        Interfaces(int count) {
+            rx = new MetricRingBuffer[count];
+            tx = new MetricRingBuffer[count];
+            errors = new MetricRingBuffer[count];
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.resourcemapperapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registry of collected metrics, each declaring how volatile it is.
+ * STATIC values are collected once and then cached, SLOW values are refreshed on a
+ * longer period and FAST values are collected on every read. Reads go through
+ * {@link Metric#get()}, which only invokes the collector when the cached value is stale.
+ */
+public class MetricRegistry {
+
+    public enum Volatility {
+        STATIC(Long.MAX_VALUE),
+        SLOW(10_000L),
+        FAST(0L);
+
+        public final long defaultRefreshMs;
+
+        Volatility(long defaultRefreshMs) {
+            this.defaultRefreshMs = defaultRefreshMs;
+        }
+    }
+
+    public interface Collector<T> {
+        T collect();
+    }
+
+    public static class Metric<T> {
+        public final String name;
+        public final Volatility volatility;
+        public final long refreshMs;
+        private final Collector<T> collector;
+        private T value;
+        private boolean collected;
+        private long lastCollectedMs;
+
+        Metric(String name, Volatility volatility, long refreshMs, Collector<T> collector) {
+            this.name = name;
+            this.volatility = volatility;
+            this.refreshMs = refreshMs;
+            this.collector = collector;
+        }
+
+        /** Returns the cached value, collecting it first if it has never been read or is stale. */
+        public T get() {
+            long now = System.nanoTime() / 1_000_000L;
+            if (!collected || (volatility != Volatility.STATIC && now - lastCollectedMs >= refreshMs)) {
+                value = collector.collect();
+                collected = true;
+                lastCollectedMs = now;
+            }
+            return value;
+        }
+
+        /**
+         * Returns the value from the last collection without collecting, or null if it has
+         * never been collected. Lets on-demand readers reuse a FAST value without re-sampling it.
+         */
+        public T peek() {
+            return value;
+        }
+
+        /** Forces the next {@link #get()} to collect again, e.g. after a configuration change. */
+        public void invalidate() {
+            collected = false;
+        }
+    }
+
+    private final List<Metric<?>> metrics = new ArrayList<>();
+
+    public <T> Metric<T> register(String name, Volatility volatility, Collector<T> collector) {
+        return register(name, volatility, volatility.defaultRefreshMs, collector);
+    }
+
+    public <T> Metric<T> register(String name, Volatility volatility, long refreshMs, Collector<T> collector) {
+        Metric<T> metric = new Metric<>(name, volatility, refreshMs, collector);
+        metrics.add(metric);
+        return metric;
+    }
+
+    public List<Metric<?>> getMetrics() {
+        return Collections.unmodifiableList(metrics);
+    }
+}
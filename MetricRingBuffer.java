@@ -0,0 +1,164 @@
+package com.example.resourcemapperapp;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity time series backed by primitive arrays. Appending never allocates;
+ * once full, the oldest sample is overwritten. Timestamps must be non-decreasing.
+ * Window queries take an inclusive [fromMs, toMs] range and return NaN when the
+ * window holds no samples. Methods are synchronized so the sampler thread can append
+ * while the UI thread queries.
+ */
+public class MetricRingBuffer {
+
+    private final String name;
+    private final String unit;
+    private final long[] timestamps;
+    private final float[] values;
+    private float[] scratch; // percentile workspace, allocated on first use
+    private MetricRollup rollup; // coarser resolutions fed from append, if attached
+    private int head; // next write position
+    private int size;
+
+    public MetricRingBuffer(String name, String unit, int capacity) {
+        this.name = name;
+        this.unit = unit;
+        this.timestamps = new long[capacity];
+        this.values = new float[capacity];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void append(long timestampMs, float value) {
+        timestamps[head] = timestampMs;
+        values[head] = value;
+        head = (head + 1) % values.length;
+        if (size < values.length) size++;
+        if (rollup != null) rollup.add(timestampMs, value);
+    }
+
+    /** Attaches rollups so every appended sample is also folded into coarser buckets. */
+    public synchronized MetricRollup attachRollup(MetricRollup rollup) {
+        this.rollup = rollup;
+        return rollup;
+    }
+
+    /** Rollups fed by this buffer, or null if none are attached. */
+    public synchronized MetricRollup getRollup() {
+        return rollup;
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /** Most recent value, or NaN if empty. */
+    public synchronized float latest() {
+        return size == 0 ? Float.NaN : values[physical(size - 1)];
+    }
+
+    /** Timestamp of the most recent value, or -1 if empty. */
+    public synchronized long latestTimestamp() {
+        return size == 0 ? -1L : timestamps[physical(size - 1)];
+    }
+
+    public synchronized float min(long fromMs, long toMs) {
+        float result = Float.NaN;
+        for (int i = firstAtOrAfter(fromMs); i < size; i++) {
+            int p = physical(i);
+            if (timestamps[p] > toMs) break;
+            if (Float.isNaN(result) || values[p] < result) result = values[p];
+        }
+        return result;
+    }
+
+    public synchronized float max(long fromMs, long toMs) {
+        float result = Float.NaN;
+        for (int i = firstAtOrAfter(fromMs); i < size; i++) {
+            int p = physical(i);
+            if (timestamps[p] > toMs) break;
+            if (Float.isNaN(result) || values[p] > result) result = values[p];
+        }
+        return result;
+    }
+
+    public synchronized float avg(long fromMs, long toMs) {
+        double sum = 0;
+        int n = 0;
+        for (int i = firstAtOrAfter(fromMs); i < size; i++) {
+            int p = physical(i);
+            if (timestamps[p] > toMs) break;
+            sum += values[p];
+            n++;
+        }
+        return n == 0 ? Float.NaN : (float) (sum / n);
+    }
+
+    /** Nearest-rank percentile ({@code pct} in 0-100) over the window. */
+    public synchronized float percentile(long fromMs, long toMs, float pct) {
+        if (scratch == null) scratch = new float[values.length];
+        int n = 0;
+        for (int i = firstAtOrAfter(fromMs); i < size; i++) {
+            int p = physical(i);
+            if (timestamps[p] > toMs) break;
+            scratch[n++] = values[p];
+        }
+        if (n == 0) return Float.NaN;
+        Arrays.sort(scratch, 0, n);
+        int rank = (int) Math.ceil(Math.max(0f, Math.min(100f, pct)) / 100f * n) - 1;
+        return scratch[Math.max(0, rank)];
+    }
+
+    /**
+     * Copies the window oldest-first into caller-owned arrays (e.g. for drawing a trend)
+     * and returns the number of samples copied, limited by the output length.
+     */
+    public synchronized int copy(long fromMs, long toMs, long[] timestampsOut, float[] valuesOut) {
+        int n = 0;
+        int limit = Math.min(timestampsOut.length, valuesOut.length);
+        for (int i = firstAtOrAfter(fromMs); i < size && n < limit; i++) {
+            int p = physical(i);
+            if (timestamps[p] > toMs) break;
+            timestampsOut[n] = timestamps[p];
+            valuesOut[n] = values[p];
+            n++;
+        }
+        return n;
+    }
+
+    /** Maps a logical index (0 = oldest) to a position in the backing arrays. */
+    private int physical(int logical) {
+        int start = size < values.length ? 0 : head;
+        return (start + logical) % values.length;
+    }
+
+    /** Binary search for the first logical index whose timestamp is >= fromMs. */
+    private int firstAtOrAfter(long fromMs) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[physical(mid)] < fromMs) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
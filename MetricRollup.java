@@ -0,0 +1,262 @@
+package com.example.resourcemapperapp;
+
+/**
+ * Multi-resolution rollups for one metric. Raw samples stay in the metric's
+ * {@link MetricRingBuffer} (whose capacity is the raw horizon); every sample is also
+ * folded into 10 s, 1 min and 10 min buckets holding min/max/mean/count/last. Each
+ * level is a fixed-capacity primitive ring, so the footprint is bounded up front.
+ */
+public class MetricRollup {
+
+    public static final long[] DEFAULT_BUCKET_MS = {10_000L, 60_000L, 600_000L};
+    public static final long[] DEFAULT_RETENTION_MS = {6 * 3_600_000L, 24 * 3_600_000L, 24 * 3_600_000L};
+    /** Aggregate queries aim for at least this many points in the window. */
+    public static final int DEFAULT_MIN_POINTS = 60;
+    /** Resolution reported for the raw level, matching the 1 Hz sampler tick. */
+    public static final long RAW_RESOLUTION_MS = 1000L;
+    public static final int RAW_LEVEL = -1;
+
+    private final MetricRingBuffer raw;
+    private final Level[] levels;
+
+    public MetricRollup(MetricRingBuffer raw) {
+        this(raw, DEFAULT_BUCKET_MS, DEFAULT_RETENTION_MS);
+    }
+
+    public MetricRollup(MetricRingBuffer raw, long[] bucketMs, long[] retentionMs) {
+        this.raw = raw;
+        levels = new Level[bucketMs.length];
+        for (int i = 0; i < bucketMs.length; i++) {
+            levels[i] = new Level(bucketMs[i], (int) Math.max(1, retentionMs[i] / bucketMs[i]));
+        }
+    }
+
+    /** Folds a sample into every level; called by the raw buffer on append. */
+    void add(long timestampMs, float value) {
+        for (Level level : levels) {
+            level.add(timestampMs, value);
+        }
+    }
+
+    public MetricRingBuffer getRaw() {
+        return raw;
+    }
+
+    public int getLevelCount() {
+        return levels.length;
+    }
+
+    public Level getLevel(int index) {
+        return levels[index];
+    }
+
+    /**
+     * Picks the coarsest resolution whose buckets are no wider than (window / maxPoints)
+     * and whose retention still reaches back to {@code fromMs}. Returns {@link #RAW_LEVEL}
+     * for raw samples, otherwise a level index. If nothing reaches back far enough, the
+     * level with the longest history is used.
+     */
+    public int selectLevel(long fromMs, long toMs, int maxPoints) {
+        long step = (toMs - fromMs) / Math.max(1, maxPoints);
+        for (int i = levels.length - 1; i >= 0; i--) {
+            if (levels[i].bucketMs <= step && levels[i].covers(fromMs)) return i;
+        }
+        if (raw.size() > 0 && rawCovers(fromMs)) return RAW_LEVEL;
+        for (int i = 0; i < levels.length; i++) {
+            if (levels[i].covers(fromMs)) return i;
+        }
+        return levels.length - 1;
+    }
+
+    public float min(long fromMs, long toMs) {
+        int level = selectLevel(fromMs, toMs, DEFAULT_MIN_POINTS);
+        return level == RAW_LEVEL ? raw.min(fromMs, toMs) : levels[level].min(fromMs, toMs);
+    }
+
+    public float max(long fromMs, long toMs) {
+        int level = selectLevel(fromMs, toMs, DEFAULT_MIN_POINTS);
+        return level == RAW_LEVEL ? raw.max(fromMs, toMs) : levels[level].max(fromMs, toMs);
+    }
+
+    public float avg(long fromMs, long toMs) {
+        int level = selectLevel(fromMs, toMs, DEFAULT_MIN_POINTS);
+        return level == RAW_LEVEL ? raw.avg(fromMs, toMs) : levels[level].avg(fromMs, toMs);
+    }
+
+    private boolean rawCovers(long fromMs) {
+        // A full ring has evicted older samples; a partial one holds everything since start
+        if (raw.size() < raw.capacity()) return true;
+        long span = (long) raw.capacity() * RAW_RESOLUTION_MS;
+        return raw.latestTimestamp() - span <= fromMs;
+    }
+
+    /** Bytes held by the raw ring plus all rollup levels for this metric. */
+    public long getFootprintBytes() {
+        long bytes = (long) raw.capacity() * (8 + 4);
+        for (Level level : levels) {
+            bytes += level.getFootprintBytes();
+        }
+        return bytes;
+    }
+
+    /** One resolution: a ring of closed buckets plus the bucket currently being filled. */
+    public static class Level {
+        public final long bucketMs;
+        private final long[] start;
+        private final float[] min;
+        private final float[] max;
+        private final double[] sum;
+        private final int[] count;
+        private final float[] last;
+        private int head;
+        private int size;
+
+        // Open bucket
+        private long openStart = -1L;
+        private float openMin;
+        private float openMax;
+        private double openSum;
+        private int openCount;
+        private float openLast;
+
+        Level(long bucketMs, int capacity) {
+            this.bucketMs = bucketMs;
+            start = new long[capacity];
+            min = new float[capacity];
+            max = new float[capacity];
+            sum = new double[capacity];
+            count = new int[capacity];
+            last = new float[capacity];
+        }
+
+        synchronized void add(long timestampMs, float value) {
+            long bucket = timestampMs - (timestampMs % bucketMs);
+            if (bucket != openStart) {
+                if (openCount > 0) close();
+                openStart = bucket;
+                openMin = value;
+                openMax = value;
+                openSum = 0;
+                openCount = 0;
+            }
+            if (value < openMin) openMin = value;
+            if (value > openMax) openMax = value;
+            openSum += value;
+            openCount++;
+            openLast = value;
+        }
+
+        private void close() {
+            start[head] = openStart;
+            min[head] = openMin;
+            max[head] = openMax;
+            sum[head] = openSum;
+            count[head] = openCount;
+            last[head] = openLast;
+            head = (head + 1) % start.length;
+            if (size < start.length) size++;
+        }
+
+        public int capacity() {
+            return start.length;
+        }
+
+        /** Start of the oldest bucket still held, or -1 if empty. */
+        public synchronized long oldestStartMs() {
+            if (size > 0) return start[physical(0)];
+            return openCount > 0 ? openStart : -1L;
+        }
+
+        synchronized boolean covers(long fromMs) {
+            long oldest = oldestStartMs();
+            if (oldest < 0) return false;
+            // Until the ring wraps it holds everything since sampling began
+            return size < start.length || oldest <= fromMs;
+        }
+
+        public synchronized float min(long fromMs, long toMs) {
+            float result = Float.NaN;
+            for (int i = 0; i < size; i++) {
+                int p = physical(i);
+                if (inWindow(start[p], fromMs, toMs) && (Float.isNaN(result) || min[p] < result)) result = min[p];
+            }
+            if (openCount > 0 && inWindow(openStart, fromMs, toMs) && (Float.isNaN(result) || openMin < result)) {
+                result = openMin;
+            }
+            return result;
+        }
+
+        public synchronized float max(long fromMs, long toMs) {
+            float result = Float.NaN;
+            for (int i = 0; i < size; i++) {
+                int p = physical(i);
+                if (inWindow(start[p], fromMs, toMs) && (Float.isNaN(result) || max[p] > result)) result = max[p];
+            }
+            if (openCount > 0 && inWindow(openStart, fromMs, toMs) && (Float.isNaN(result) || openMax > result)) {
+                result = openMax;
+            }
+            return result;
+        }
+
+        public synchronized float avg(long fromMs, long toMs) {
+            double total = 0;
+            long n = 0;
+            for (int i = 0; i < size; i++) {
+                int p = physical(i);
+                if (inWindow(start[p], fromMs, toMs)) {
+                    total += sum[p];
+                    n += count[p];
+                }
+            }
+            if (openCount > 0 && inWindow(openStart, fromMs, toMs)) {
+                total += openSum;
+                n += openCount;
+            }
+            return n == 0 ? Float.NaN : (float) (total / n);
+        }
+
+        /**
+         * Copies buckets overlapping the window oldest-first into caller-owned arrays and
+         * returns how many were written. Any of the value arrays may be null.
+         */
+        public synchronized int copy(long fromMs, long toMs, long[] startOut, float[] meanOut,
+                                     float[] minOut, float[] maxOut, float[] lastOut) {
+            int n = 0;
+            for (int i = 0; i <= size && n < startOut.length; i++) {
+                long s;
+                float mn, mx, ls;
+                double sm;
+                int c;
+                if (i < size) {
+                    int p = physical(i);
+                    s = start[p]; mn = min[p]; mx = max[p]; sm = sum[p]; c = count[p]; ls = last[p];
+                } else {
+                    if (openCount == 0) break;
+                    s = openStart; mn = openMin; mx = openMax; sm = openSum; c = openCount; ls = openLast;
+                }
+                if (!inWindow(s, fromMs, toMs)) continue;
+                startOut[n] = s;
+                if (meanOut != null) meanOut[n] = (float) (sm / c);
+                if (minOut != null) minOut[n] = mn;
+                if (maxOut != null) maxOut[n] = mx;
+                if (lastOut != null) lastOut[n] = ls;
+                n++;
+            }
+            return n;
+        }
+
+        /** A bucket belongs to the window if any part of it overlaps [fromMs, toMs]. */
+        private boolean inWindow(long bucketStart, long fromMs, long toMs) {
+            return bucketStart + bucketMs > fromMs && bucketStart <= toMs;
+        }
+
+        private int physical(int logical) {
+            int first = size < start.length ? 0 : head;
+            return (first + logical) % start.length;
+        }
+
+        public long getFootprintBytes() {
+            return (long) start.length * (8 + 4 + 4 + 8 + 4 + 4);
+        }
+    }
+}
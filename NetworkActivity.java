@@ -0,0 +1,41 @@
+package com.example.resourcemapperapp;
+
+import android.os.Bundle;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+public class NetworkActivity extends AppCompatActivity {
+    private SamplingEngine engine;
+    // The sampler runs every tick; only format its state while the screen is visible
+    private final SamplingEngine.Listener engineListener =
+            e -> e.request(StatsProvider::collectNetworkDetails, this::showNetworkDetails);
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_network);
+
+        engine = SamplingEngine.get(this);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Rates need two ticks; the engine has usually taken them before the screen opens
+        engine.request(StatsProvider::collectNetworkDetails, this::showNetworkDetails);
+        engine.addListener(engineListener);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        engine.removeListener(engineListener);
+    }
+
+    private void showNetworkDetails(StatsProvider.NetworkDetails d) {
+        ((TextView) findViewById(R.id.rowNetworkTotal)).setText(d.total);
+        ((TextView) findViewById(R.id.rowNetworkSource)).setText(d.source);
+        ((TextView) findViewById(R.id.rowInterfaces)).setText(d.interfaces);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.resourcemapperapp;
+
+import android.net.TrafficStats;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Per-interface network throughput from /proc/net/dev, parsed in place from a kept-open
+ * {@link ProcFileReader}. Counters and per-second rates (bytes, packets, errors, drops in
+ * each direction) live in primitive arrays indexed by interface; an interface is added the
+ * first time it appears (the only allocation) and keeps its index, so history and UI rows
+ * stay stable while rmnet or tun interfaces come and go. Where /proc/net/dev is not readable
+ * (newer SELinux policies), TrafficStats totals are reported as the pseudo-interfaces "total"
+ * and "mobile", without error or drop counts. Not thread-safe.
+ */
+public class NetworkSampler {
+
+    public static final int RX_BYTES = 0;
+    public static final int RX_PACKETS = 1;
+    public static final int RX_ERRORS = 2;
+    public static final int RX_DROPS = 3;
+    public static final int TX_BYTES = 4;
+    public static final int TX_PACKETS = 5;
+    public static final int TX_ERRORS = 6;
+    public static final int TX_DROPS = 7;
+    public static final int COUNTERS = 8;
+
+    // Column of each counter among the 16 numbers after "iface:"
+    private static final int[] COLUMNS = {0, 1, 2, 3, 8, 9, 10, 11};
+    private static final int FIELDS = 16;
+    private static final int INITIAL_INTERFACES = 8;
+    private static final String LOOPBACK = "lo";
+
+    private final ProcFileReader netDev;
+    private final long[] fields = new long[FIELDS];
+    private boolean useTrafficStats;
+    private int totalIndex = -1; // the "total" pseudo-interface once TrafficStats is in use
+
+    private int count;
+    private byte[][] nameBytes = new byte[INITIAL_INTERFACES][];
+    private String[] names = new String[INITIAL_INTERFACES];
+    private boolean[] present = new boolean[INITIAL_INTERFACES];
+    private boolean[] havePrevious = new boolean[INITIAL_INTERFACES];
+    private long[] counters = new long[INITIAL_INTERFACES * COUNTERS];
+    private long[] previous = new long[INITIAL_INTERFACES * COUNTERS];
+    private float[] rates = new float[INITIAL_INTERFACES * COUNTERS];
+
+    private long lastSampleMs = -1L;
+    private float totalRxBytesPerSec = Float.NaN;
+    private float totalTxBytesPerSec = Float.NaN;
+
+    public NetworkSampler() {
+        this("/proc/net/dev");
+    }
+
+    /** Alternate /proc/net/dev path, e.g. a recorded fixture file. */
+    public NetworkSampler(String netDevPath) {
+        netDev = new ProcFileReader(netDevPath, 4096);
+        Arrays.fill(rates, Float.NaN);
+    }
+
+    /** Reads all interfaces and updates per-second rates; false if no source was readable. */
+    public boolean sample(long nowMs) {
+        long elapsedMs = lastSampleMs > 0 ? nowMs - lastSampleMs : -1L;
+        for (int i = 0; i < count; i++) present[i] = false;
+        boolean ok;
+        if (!useTrafficStats && netDev.read()) {
+            ok = parseNetDev();
+        } else {
+            // Fall back for good once the file is unreadable; retrying would throw every tick
+            useTrafficStats = true;
+            netDev.close();
+            ok = readTrafficStats();
+        }
+
+        float rx = 0;
+        float tx = 0;
+        boolean haveTotals = false;
+        for (int i = 0; i < count; i++) {
+            int base = i * COUNTERS;
+            if (!present[i]) {
+                havePrevious[i] = false;
+                Arrays.fill(rates, base, base + COUNTERS, Float.NaN);
+                continue;
+            }
+            for (int c = 0; c < COUNTERS; c++) {
+                long cur = counters[base + c];
+                long prev = previous[base + c];
+                // Counters reset when an interface is torn down and brought back up
+                rates[base + c] = havePrevious[i] && elapsedMs > 0 && cur >= 0 && prev >= 0 && cur >= prev
+                        ? (cur - prev) * 1000f / elapsedMs : Float.NaN;
+                previous[base + c] = cur;
+            }
+            havePrevious[i] = true;
+            if (isLoopback(i) || Float.isNaN(rates[base + RX_BYTES])) continue;
+            // "total" already covers "mobile" in the TrafficStats fallback
+            if (useTrafficStats && i != totalIndex) continue;
+            rx += rates[base + RX_BYTES];
+            tx += rates[base + TX_BYTES];
+            haveTotals = true;
+        }
+        totalRxBytesPerSec = haveTotals ? rx : Float.NaN;
+        totalTxBytesPerSec = haveTotals ? tx : Float.NaN;
+        lastSampleMs = nowMs;
+        return ok;
+    }
+
+    /** Interfaces seen so far, including ones absent from the last sample. */
+    public int getInterfaceCount() {
+        return count;
+    }
+
+    public String getInterfaceName(int iface) {
+        return names[iface];
+    }
+
+    /** True if the interface was listed in the last sample. */
+    public boolean isPresent(int iface) {
+        return present[iface];
+    }
+
+    public boolean isLoopback(int iface) {
+        return LOOPBACK.equals(names[iface]);
+    }
+
+    /** Cumulative counter ({@link #RX_BYTES} ... {@link #TX_DROPS}), or -1 if not reported. */
+    public long getCounter(int iface, int counter) {
+        return counters[iface * COUNTERS + counter];
+    }
+
+    /** Per-second rate of a counter between the last two samples, or NaN. */
+    public float getRate(int iface, int counter) {
+        return rates[iface * COUNTERS + counter];
+    }
+
+    /** Receive rate summed over non-loopback interfaces, or NaN before two samples. */
+    public float getTotalRxBytesPerSec() {
+        return totalRxBytesPerSec;
+    }
+
+    public float getTotalTxBytesPerSec() {
+        return totalTxBytesPerSec;
+    }
+
+    /** True once sampling has fallen back to TrafficStats totals. */
+    public boolean isUsingTrafficStats() {
+        return useTrafficStats;
+    }
+
+    public void close() {
+        netDev.close();
+    }
+
+    /**
+     * Two header lines, then "  wlan0: rxBytes rxPackets errs drop fifo frame compressed
+     * multicast txBytes txPackets errs drop fifo colls carrier compressed" per interface.
+     */
+    private boolean parseNetDev() {
+        byte[] buf = netDev.buffer();
+        int len = netDev.length();
+        int pos = netDev.nextLine(netDev.nextLine(0));
+        boolean any = false;
+        while (pos < len) {
+            pos = netDev.skipBlanks(pos);
+            int nameStart = pos;
+            while (pos < len && buf[pos] != ':' && buf[pos] != '\n') pos++;
+            if (pos >= len || buf[pos] != ':') {
+                pos = netDev.nextLine(pos);
+                continue;
+            }
+            int iface = interfaceIndex(buf, nameStart, pos);
+            int parsed = netDev.parseLongs(pos + 1, fields, 0, FIELDS);
+            if (parsed >= FIELDS) {
+                int base = iface * COUNTERS;
+                for (int c = 0; c < COUNTERS; c++) counters[base + c] = fields[COLUMNS[c]];
+                present[iface] = true;
+                any = true;
+            }
+            pos = netDev.nextLine(pos);
+        }
+        return any;
+    }
+
+    private boolean readTrafficStats() {
+        int total = interfaceIndex("total");
+        totalIndex = total;
+        int mobile = interfaceIndex("mobile");
+        long totalRx = TrafficStats.getTotalRxBytes();
+        if (totalRx == TrafficStats.UNSUPPORTED) return false;
+        setTrafficStats(total, totalRx, TrafficStats.getTotalRxPackets(),
+                TrafficStats.getTotalTxBytes(), TrafficStats.getTotalTxPackets());
+        long mobileRx = TrafficStats.getMobileRxBytes();
+        if (mobileRx != TrafficStats.UNSUPPORTED) {
+            setTrafficStats(mobile, mobileRx, TrafficStats.getMobileRxPackets(),
+                    TrafficStats.getMobileTxBytes(), TrafficStats.getMobileTxPackets());
+        }
+        return true;
+    }
+
+    private void setTrafficStats(int iface, long rxBytes, long rxPackets, long txBytes, long txPackets) {
+        int base = iface * COUNTERS;
+        Arrays.fill(counters, base, base + COUNTERS, -1L);
+        counters[base + RX_BYTES] = rxBytes;
+        counters[base + RX_PACKETS] = rxPackets;
+        counters[base + TX_BYTES] = txBytes;
+        counters[base + TX_PACKETS] = txPackets;
+        present[iface] = true;
+    }
+
+    /** Index of the interface named by buf[from, to), trimmed; added if new. */
+    private int interfaceIndex(byte[] buf, int from, int to) {
+        while (to > from && buf[to - 1] == ' ') to--;
+        int length = to - from;
+        for (int i = 0; i < count; i++) {
+            byte[] name = nameBytes[i];
+            if (name.length != length) continue;
+            int j = 0;
+            while (j < length && name[j] == buf[from + j]) j++;
+            if (j == length) return i;
+        }
+        return addInterface(new String(buf, from, length, StandardCharsets.US_ASCII));
+    }
+
+    private int interfaceIndex(String name) {
+        for (int i = 0; i < count; i++) {
+            if (names[i].equals(name)) return i;
+        }
+        return addInterface(name);
+    }
+
+    private int addInterface(String name) {
+        if (count == names.length) {
+            int n = count * 2;
+            nameBytes = Arrays.copyOf(nameBytes, n);
+            names = Arrays.copyOf(names, n);
+            present = Arrays.copyOf(present, n);
+            havePrevious = Arrays.copyOf(havePrevious, n);
+            counters = Arrays.copyOf(counters, n * COUNTERS);
+            previous = Arrays.copyOf(previous, n * COUNTERS);
+            rates = Arrays.copyOf(rates, n * COUNTERS);
+            Arrays.fill(rates, count * COUNTERS, rates.length, Float.NaN);
+        }
+        nameBytes[count] = ProcFileReader.ascii(name);
+        names[count] = name;
+        return count++;
+    }
+}
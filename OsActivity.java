@@ -11,7 +11,10 @@ public class OsActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_os);
 
-        StatsProvider.OsDetails d = new StatsProvider(this).collectOsDetails();
+        SamplingEngine.get(this).request(StatsProvider::collectOsDetails, this::showOsDetails);
+    }
+
+    private void showOsDetails(StatsProvider.OsDetails d) {
         ((TextView) findViewById(R.id.rowOsName)).setText(d.osName);
         ((TextView) findViewById(R.id.rowVersion)).setText(d.version);
         ((TextView) findViewById(R.id.rowBuild)).setText(d.build);
@@ -0,0 +1,449 @@
+package com.example.resourcemapperapp;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Host-side regression harness for the collectors and benchmark kernels; runs on a plain
+ * Linux JVM with no Android classes on the classpath, so everything it touches must stay
+ * free of Android types (hence {@link BenchmarkKernels} rather than BenchmarkProvider):
+ *
+ * <pre>
+ * javac -d out PerfHarness.java BenchmarkKernels.java BenchmarkRunner.java CpuCoreSampler.java \
+ *     DiskStatsSampler.java HumanFormatter.java MatrixBenchmark.java MemInfoParser.java \
+ *     PressureMonitor.java ProcFileReader.java ProcessScanner.java SessionExporter.java \
+ *     SessionReader.java SessionRecorder.java ThreadProfiler.java
+ * java -cp out com.example.resourcemapperapp.PerfHarness [--fixtures DIR] [--record DIR] [filter]
+ * </pre>
+ *
+ * Each case is warmed up, then timed in batches of about 100 ms; a case whose 95% interval
+ * is still wider than 5% is re-run with more repetitions (30, 60, 120), so "noisy" marks a
+ * machine too busy to measure on. ns/op and bytes allocated per op are reported
+ * (allocation via the HotSpot ThreadMXBean, looked up reflectively so this file still
+ * compiles against android.jar). {@code --record DIR} snapshots the procfs inputs so later
+ * runs can use {@code --fixtures DIR} for stable, machine-independent numbers. The legacy
+ * BufferedReader/split and String.format paths are kept here as baselines.
+ */
+public final class PerfHarness {
+
+    private static final long CALIBRATE_NS = 100_000_000L;
+    private static final long BATCH_NS = 100_000_000L;
+    private static final int WARMUP = 5;
+    // A noisy case is re-run with twice the repetitions until its 95% interval holds, up to
+    // MAX_REPETITIONS or until the next attempt would take longer than MAX_ATTEMPT_NS
+    private static final int MIN_REPETITIONS = 30;
+    private static final int MAX_REPETITIONS = 120;
+    private static final long MAX_ATTEMPT_NS = 20_000_000_000L;
+    private static final String[] FIXTURE_FILES = {
+            "stat", "meminfo", "vmstat", "pressure/memory", "pressure/cpu", "pressure/io"
+    };
+    private static final String[] SESSION_NAMES = {
+            "cpu.total", "mem.available", "net.rx", "net.tx", "battery.temperature"
+    };
+    private static final int SESSION_ROWS = 3600;
+    private static final long SESSION_START_MS = 1_700_000_000_000L;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<BenchmarkRunner.Kernel> cases = new ArrayList<>();
+    private final Object threadBean;
+    private final Method allocatedBytes;
+
+    private PerfHarness() {
+        Object bean = null;
+        Method method = null;
+        try {
+            bean = Class.forName("java.lang.management.ManagementFactory")
+                    .getMethod("getThreadMXBean").invoke(null);
+            method = Class.forName("com.sun.management.ThreadMXBean")
+                    .getMethod("getThreadAllocatedBytes", long.class);
+        } catch (Exception | LinkageError e) {
+            // Not HotSpot; allocation column shows "-"
+        }
+        threadBean = bean;
+        allocatedBytes = method;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String procDir = "/proc";
+        String filter = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--fixtures".equals(args[i]) && i + 1 < args.length) {
+                procDir = args[++i];
+            } else if ("--record".equals(args[i]) && i + 1 < args.length) {
+                record(new File(args[++i]));
+                return;
+            } else {
+                filter = args[i];
+            }
+        }
+        PerfHarness harness = new PerfHarness();
+        harness.addCollectors(procDir);
+        harness.addFormatters();
+        harness.addKernels();
+        harness.addSessionWriters();
+        harness.runAll(filter);
+        if (filter == null || "session".contains(filter)) {
+            reportSessionSize();
+        }
+    }
+
+    private void add(String name, BenchmarkRunner.Kernel c) {
+        names.add(name);
+        cases.add(c);
+    }
+
+    private void addCollectors(String procDir) {
+        final String stat = procDir + "/stat";
+        final ProcFileReader statReader = new ProcFileReader(stat);
+        final byte[] cpuPrefix = ProcFileReader.ascii("cpu ");
+        final long[] jiffies = new long[10];
+        add("procstat.total.reader", () -> {
+            require(statReader.read(), stat);
+            int pos = statReader.findLine(cpuPrefix);
+            return statReader.parseLongs(pos + cpuPrefix.length, jiffies, 0, jiffies.length) + jiffies[3];
+        });
+        add("procstat.total.legacy", () -> legacyTotalCpu(stat));
+
+        final CpuCoreSampler cores = new CpuCoreSampler(stat, Runtime.getRuntime().availableProcessors());
+        add("procstat.percore", () -> {
+            require(cores.sample(), stat);
+            return cores.getCurFreqKhz(0);
+        });
+
+        final MemInfoParser mem = new MemInfoParser(procDir + "/meminfo", procDir + "/vmstat");
+        add("meminfo+vmstat.parser", () -> {
+            require(mem.sample(), procDir + "/meminfo");
+            return mem.get(MemInfoParser.ACTIVE) + mem.get(MemInfoParser.PGFAULT);
+        });
+        add("meminfo+vmstat.legacy", () -> legacyMeminfo(procDir + "/meminfo", procDir + "/vmstat"));
+
+        final PressureMonitor pressure = new PressureMonitor(procDir + "/pressure",
+                new MemInfoParser(procDir + "/meminfo", procDir + "/vmstat"));
+        final long[] clock = {1L};
+        add("pressure.sample", () -> pressure.sample(clock[0] += 1000).ordinal());
+
+        if ("/proc".equals(procDir)) {
+            // Live-only: these walk directories or resolve mounts that fixtures do not capture
+            final DiskStatsSampler disk = new DiskStatsSampler("/");
+            add("diskstats.sample", () -> {
+                require(disk.sample(clock[0] += 1000), "/proc/diskstats");
+                return disk.getInFlight();
+            });
+            final ProcessScanner scanner = new ProcessScanner(5);
+            add("process.scan", () -> scanner.scan(clock[0] += 1000));
+        }
+    }
+
+    private void addFormatters() {
+        final StringBuilder sb = new StringBuilder(32);
+        final long[] value = {123_456_789L};
+        add("format.bytes.formatter", () -> {
+            sb.setLength(0);
+            HumanFormatter.appendBytes(sb, value[0]++);
+            return sb.length();
+        });
+        add("format.bytes.legacy", () -> legacyHumanBytes(value[0]++).length());
+        final double[] pct = {0.05};
+        add("format.percent.formatter", () -> {
+            sb.setLength(0);
+            HumanFormatter.appendPercent(sb, pct[0] = (pct[0] + 0.37) % 100, 1);
+            return sb.length();
+        });
+        add("format.percent.legacy", () ->
+                String.format(Locale.US, "%.1f%%", pct[0] = (pct[0] + 0.37) % 100).length());
+        add("format.rate.formatter", () -> {
+            sb.setLength(0);
+            HumanFormatter.appendBytesPerSec(sb, value[0]++, 1000);
+            return sb.length();
+        });
+        add("format.rate.legacy", () -> legacyRate(value[0]++, 1000).length());
+        final HumanFormatter.CachedText cached = new HumanFormatter.CachedText();
+        add("format.cachedtext.unchanged", () -> {
+            HumanFormatter.appendPercent(cached.begin(), 42.5, 1);
+            return cached.commit().length();
+        });
+    }
+
+    private void addKernels() {
+        // The same kernels BenchmarkProvider scores; BenchmarkProvider itself needs Android
+        final BenchmarkKernels kernels = new BenchmarkKernels();
+        add("kernel.random", kernels::runRandomNumberTest);
+        add("kernel.matrix200", kernels::runMatrixMultiplication);
+        add("kernel.sha256", kernels::runHashingTest);
+        // BenchmarkProvider's multi-threaded round, plain and with the thread profiler sampling it
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "bench-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        add("kernel.multithread", () -> kernels.runMultiThreaded(executor, threads));
+        final ThreadProfiler profiler = new ThreadProfiler();
+        add("kernel.multithread.profiled", () -> {
+            profiler.start();
+            try {
+                return kernels.runMultiThreaded(executor, threads);
+            } finally {
+                profiler.stop();
+            }
+        });
+        // Fixed cost of a profiled round: sysfs capacities, sampler thread, final sample
+        add("profiler.startstop", () -> {
+            profiler.start();
+            profiler.stop();
+            return profiler.getSampleCount();
+        });
+        final int n = 256;
+        final MatrixBenchmark matrix = new MatrixBenchmark(n);
+        final double[] a = new double[n * n];
+        final double[] b = new double[n * n];
+        final double[] c = new double[n * n];
+        Arrays.fill(a, 1.5);
+        Arrays.fill(b, 0.5);
+        add("kernel.matrix256.tiled", () -> {
+            matrix.multiply(a, b, c);
+            return (long) c[n + 1];
+        });
+    }
+
+    /** Write cost of one synthetic hour: the binary recorder vs a naive CSV writer, same rows. */
+    private void addSessionWriters() throws IOException {
+        final float[][] rows = syntheticSession();
+        final File bin = File.createTempFile("perf", ".rms");
+        final File csv = File.createTempFile("perf", ".csv");
+        bin.deleteOnExit();
+        csv.deleteOnExit();
+        add("session.write3600.binary", () -> {
+            try {
+                SessionRecorder recorder = new SessionRecorder(bin, SESSION_NAMES, new String[SESSION_NAMES.length]);
+                for (int i = 0; i < SESSION_ROWS; i++) {
+                    recorder.append(SESSION_START_MS + i * 1000L, rows[i]);
+                }
+                recorder.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bin.length();
+        });
+        add("session.write3600.csv", () -> naiveCsv(csv, rows));
+    }
+
+    private void runAll(String filter) {
+        System.out.println(String.format(Locale.US, "%-30s %14s %8s %14s %14s %12s %5s",
+                "case", "median ns/op", "+/-%", "p10", "p90", "B/op", "reps"));
+        for (int i = 0; i < cases.size(); i++) {
+            String name = names.get(i);
+            if (filter != null && !name.contains(filter)) continue;
+            measure(name, cases.get(i));
+        }
+    }
+
+    /** Times one case; a case whose input cannot be read throws and is reported as skipped. */
+    private void measure(String name, BenchmarkRunner.Kernel kernel) {
+        // Size batches so each repetition lasts about BATCH_NS; the runner does the real warmup
+        long ops = 0;
+        long start = System.nanoTime();
+        long opsPerBatch;
+        BenchmarkRunner.Stats stats;
+        long bytesBefore = 0;
+        long totalOps = 0;
+        try {
+            while (System.nanoTime() - start < CALIBRATE_NS) {
+                BenchmarkRunner.consume(kernel.run());
+                ops++;
+            }
+            opsPerBatch = Math.max(1, ops * BATCH_NS / Math.max(1, System.nanoTime() - start));
+
+            bytesBefore = threadAllocatedBytes();
+            int repetitions = MIN_REPETITIONS;
+            while (true) {
+                long attemptStart = System.nanoTime();
+                stats = new BenchmarkRunner(WARMUP, repetitions).measure(name, kernel, opsPerBatch);
+                totalOps += (long) (stats.warmup + stats.repetitions) * opsPerBatch;
+                if (!stats.highVariance || repetitions >= MAX_REPETITIONS
+                        || (System.nanoTime() - attemptStart) * 2 > MAX_ATTEMPT_NS) break;
+                repetitions *= 2;
+            }
+        } catch (RuntimeException e) {
+            // A failing read would otherwise be timed as a suspiciously fast op
+            System.out.println(String.format(Locale.US, "%-30s skipped: %s", name, e.getMessage()));
+            return;
+        }
+        long allocated = threadAllocatedBytes() - bytesBefore;
+        String bytesPerOp = allocatedBytes == null ? "-"
+                : String.format(Locale.US, "%.1f", allocated / (double) totalOps);
+        System.out.println(String.format(Locale.US, "%-30s %14.1f %8.1f %14.1f %14.1f %12s %5d%s", name,
+                stats.medianNs, stats.ciPercent(), stats.p10Ns, stats.p90Ns, bytesPerOp, stats.repetitions,
+                stats.highVariance ? "  noisy" : ""));
+    }
+
+    private static void require(boolean ok, String path) {
+        if (!ok) throw new IllegalStateException("cannot read " + path);
+    }
+
+    private long threadAllocatedBytes() {
+        if (allocatedBytes == null) return 0;
+        try {
+            return (Long) allocatedBytes.invoke(threadBean, Thread.currentThread().getId());
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /** Encoded size of a synthetic one-hour 1 Hz session vs the same rows as CSV. */
+    private static void reportSessionSize() throws IOException {
+        File bin = File.createTempFile("perf", ".rms");
+        File csv = File.createTempFile("perf", ".csv");
+        try {
+            float[][] rows = syntheticSession();
+            SessionRecorder recorder = new SessionRecorder(bin, SESSION_NAMES, new String[SESSION_NAMES.length]);
+            for (int i = 0; i < SESSION_ROWS; i++) {
+                recorder.append(SESSION_START_MS + i * 1000L, rows[i]);
+            }
+            recorder.close();
+            try (OutputStream out = new FileOutputStream(csv)) {
+                SessionExporter.export(new SessionReader(bin), out, SessionExporter.Format.CSV);
+            }
+            System.out.println(String.format(Locale.US, "session %dx%d: binary %d B (%.2f B/sample), csv %d B",
+                    SESSION_ROWS, SESSION_NAMES.length, bin.length(),
+                    bin.length() / ((double) SESSION_ROWS * SESSION_NAMES.length), csv.length()));
+        } finally {
+            bin.delete();
+            csv.delete();
+        }
+    }
+
+    /** One hour at 1 Hz: noisy CPU, a slow memory sawtooth, bursty network, stepped temperature. */
+    private static float[][] syntheticSession() {
+        float[][] rows = new float[SESSION_ROWS][SESSION_NAMES.length];
+        Random random = new Random(3);
+        for (int i = 0; i < SESSION_ROWS; i++) {
+            float[] row = rows[i];
+            row[0] = 20 + random.nextInt(40);
+            row[1] = 3_000_000_000f - (i % 600) * 1_000_000f;
+            row[2] = random.nextInt(4) == 0 ? random.nextInt(500_000) : 0;
+            row[3] = random.nextInt(4) == 0 ? random.nextInt(50_000) : 0;
+            row[4] = 31.5f + (i / 600) * 0.5f;
+        }
+        return rows;
+    }
+
+    private static void record(File dir) throws IOException {
+        for (String name : FIXTURE_FILES) {
+            File target = new File(dir, name);
+            target.getParentFile().mkdirs();
+            try (InputStream in = new FileInputStream("/proc/" + name);
+                 OutputStream out = new FileOutputStream(target)) {
+                byte[] buf = new byte[8192];
+                int n;
+                while ((n = in.read(buf)) > 0) out.write(buf, 0, n);
+            } catch (IOException e) {
+                System.out.println("skipped /proc/" + name + ": " + e.getMessage());
+            }
+        }
+        System.out.println("recorded fixtures in " + dir);
+    }
+
+    // Baselines: the parsing and formatting paths the collectors used before ProcFileReader,
+    // MemInfoParser and HumanFormatter.
+
+    private static long legacyTotalCpu(String path) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            String line = reader.readLine();
+            if (line == null || !line.startsWith("cpu ")) {
+                throw new IllegalStateException("no cpu line in " + path);
+            }
+            String[] toks = line.trim().split("\\s+");
+            long total = 0;
+            for (int i = 1; i < toks.length; i++) total += Long.parseLong(toks[i]);
+            return total;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long legacyMeminfo(String meminfo, String vmstat) {
+        long sum = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(meminfo))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("Active:") || line.startsWith("Inactive:") || line.startsWith("Buffers:")
+                        || line.startsWith("Cached:") || line.startsWith("Compressed:")) {
+                    sum += Long.parseLong(line.trim().split("\\s+")[1]);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(vmstat))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\\s+");
+                if (parts.length >= 2 && ("pgpgin".equals(parts[0]) || "pgpgout".equals(parts[0])
+                        || "pgfault".equals(parts[0]))) {
+                    sum += Long.parseLong(parts[1]);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sum;
+    }
+
+    /** What a recorder would do without the binary format: one text line per tick. */
+    private static long naiveCsv(File file, float[][] rows) {
+        try (Writer out = new FileWriter(file)) {
+            out.write("timestamp_ms," + String.join(",", SESSION_NAMES) + "\n");
+            for (int i = 0; i < SESSION_ROWS; i++) {
+                StringBuilder line = new StringBuilder();
+                line.append(SESSION_START_MS + i * 1000L);
+                for (float v : rows[i]) line.append(',').append(v);
+                out.write(line.append('\n').toString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return file.length();
+    }
+
+    private static String legacyRate(long bytesDelta, long millisDelta) {
+        String[] units = {"B/s", "KB/s", "MB/s", "GB/s"};
+        double b = (bytesDelta * 1000.0) / Math.max(1.0, millisDelta);
+        int u = 0;
+        while (b >= 1024 && u < units.length - 1) {
+            b /= 1024.0;
+            u++;
+        }
+        return u == 0 ? String.format(Locale.US, "%d %s", (long) b, units[u])
+                : String.format(Locale.US, "%.1f %s", b, units[u]);
+    }
+
+    private static String legacyHumanBytes(long bytes) {
+        String[] units = {"B", "KB", "MB", "GB", "TB"};
+        double b = bytes;
+        int u = 0;
+        while (b >= 1024 && u < units.length - 1) {
+            b /= 1024.0;
+            u++;
+        }
+        return u == 0 ? String.format(Locale.US, "%d %s", (long) b, units[u])
+                : String.format(Locale.US, "%.1f %s", b, units[u]);
+    }
+}
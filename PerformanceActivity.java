@@ -1,13 +1,108 @@
 package com.example.resourcemapperapp;
 
+import android.content.Context;
 import android.os.Bundle;
+import android.os.PowerManager;
+import android.widget.TextView;
+
 import androidx.appcompat.app.AppCompatActivity;
 
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 public class PerformanceActivity extends AppCompatActivity {
 
+    /** One benchmark mode; runs on the benchmark thread and returns the text for its row. */
+    private interface Mode {
+        String run() throws IOException;
+    }
+
+    private final BenchmarkProvider benchmarks = new BenchmarkProvider();
+    // Keeps the engine's battery monitor running while this screen is visible, so the voltage
+    // and plug state the energy profiler reads are current before a CPU run starts
+    private final BatteryMonitor.Listener keepBatteryMonitored = m -> {};
+    private SamplingEngine engine;
+    // One mode at a time: concurrent runs would compete for cores, bandwidth and thermal headroom
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "benchmark"));
+    private boolean running; // main thread only
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_performance);
+
+        engine = SamplingEngine.get(this);
+
+        bind(R.id.rowCpuBench, this::runCpu);
+        bind(R.id.rowStorageBench, () -> StorageBenchmark.formatSummary(benchmarks.runStorageBenchmark(getFilesDir())));
+        bind(R.id.rowMemoryBench, () -> MemoryBenchmark.formatSummary(benchmarks.runMemoryBenchmark()));
+        bind(R.id.rowSustainedBench, () -> SustainedBenchmark.formatSummary(benchmarks.runSustainedBenchmark(
+                (PowerManager) getSystemService(Context.POWER_SERVICE), SustainedBenchmark.DEFAULT_DURATION_MS)));
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        engine.addBatteryListener(keepBatteryMonitored);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        engine.removeBatteryListener(keepBatteryMonitored);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Interrupts a sustained run, which stops at its next sample; shorter modes finish
+        executor.shutdownNow();
+    }
+
+    private void bind(int rowId, Mode mode) {
+        TextView row = findViewById(rowId);
+        if (row == null) return;
+        row.setText("Tap to run");
+        row.setOnClickListener(v -> start(row, mode));
+    }
+
+    private void start(TextView row, Mode mode) {
+        if (running) return;
+        running = true;
+        row.setText("Running...");
+        executor.execute(() -> {
+            String text;
+            try {
+                text = mode.run();
+            } catch (IOException | RuntimeException e) {
+                text = "Failed: " + e.getMessage();
+            }
+            String result = text;
+            runOnUiThread(() -> {
+                running = false;
+                row.setText(result);
+            });
+        });
+    }
+
+    /** The CPU score with each kernel's battery energy; runs on the benchmark thread. */
+    private String runCpu() {
+        EnergyProfiler energy = new EnergyProfiler(this, engine.getBatteryMonitor());
+        BenchmarkProvider.BenchmarkResults r;
+        energy.start();
+        try {
+            r = benchmarks.runBenchmark(energy);
+        } finally {
+            energy.stop();
+        }
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("Score ").append(r.overallScore).append(": ").append(r.comparison);
+        if (!Double.isNaN(r.scorePerJoule)) {
+            HumanFormatter.appendFixed(sb.append(", "), r.scorePerJoule, 1).append(" points/J");
+        }
+        sb.append('\n').append(r.details).append('\n').append(r.threadSummary);
+        sb.append('\n').append(r.energySummary);
+        return sb.toString();
     }
-}
\ No newline at end of file
+}
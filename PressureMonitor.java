@@ -0,0 +1,254 @@
+package com.example.resourcemapperapp;
+
+/**
+ * Live resource pressure from the kernel's PSI files (/proc/pressure/memory, cpu, io) with
+ * /proc/vmstat rate fallbacks for kernels or SELinux policies that hide PSI. Each
+ * {@link #sample(long)} keeps the previous cumulative counters so stall time and vmstat
+ * events can be reported per second; a high "used" percentage alone (a full page cache)
+ * never raises the level, only time actually spent stalled or refaulting does.
+ */
+public class PressureMonitor {
+
+    public enum Level { UNKNOWN, LOW, MEDIUM, HIGH }
+
+    public static final int MEMORY = 0;
+    public static final int CPU = 1;
+    public static final int IO = 2;
+    public static final int SOME = 0;
+    public static final int FULL = 1;
+
+    // Memory thresholds, in the spirit of lmkd's PSI levels (% of the last 10 s stalled)
+    private static final float SOME_MEDIUM_PCT = 10f;
+    private static final float SOME_HIGH_PCT = 30f;
+    private static final float FULL_MEDIUM_PCT = 1f;
+    private static final float FULL_HIGH_PCT = 5f;
+    // vmstat fallback thresholds (events per second)
+    private static final float MAJFAULT_MEDIUM = 50f;
+    private static final float MAJFAULT_HIGH = 500f;
+    private static final float REFAULT_MEDIUM = 500f;
+    private static final float REFAULT_HIGH = 5000f;
+    private static final float PSWPIN_MEDIUM = 100f;
+    private static final float PSWPIN_HIGH = 1000f;
+
+    private static final String[] PSI_FILES = {"memory", "cpu", "io"};
+    private static final byte[] SOME_PREFIX = ProcFileReader.ascii("some");
+    private static final byte[] FULL_PREFIX = ProcFileReader.ascii("full");
+    private static final byte[] AVG10 = ProcFileReader.ascii("avg10=");
+    private static final byte[] AVG60 = ProcFileReader.ascii("avg60=");
+    private static final byte[] TOTAL = ProcFileReader.ascii("total=");
+
+    private static final int SLOTS = PSI_FILES.length * 2;
+
+    private final ProcFileReader[] psiReaders = new ProcFileReader[PSI_FILES.length];
+    private final MemInfoParser vmstat;
+
+    // PSI values per [resource * 2 + SOME/FULL]; NaN / -1 when the line is absent
+    private final float[] avg10 = new float[SLOTS];
+    private final float[] avg60 = new float[SLOTS];
+    private final long[] totalUs = new long[SLOTS];
+    private final long[] prevTotalUs = new long[SLOTS];
+    private final float[] stallUsPerSec = new float[SLOTS];
+
+    // vmstat counters and their per-second rates
+    private long prevMajfault = -1L;
+    private long prevPswpin = -1L;
+    private long prevRefault = -1L;
+    private long prevAllocStall = -1L;
+    private float majfaultPerSec = Float.NaN;
+    private float pswpinPerSec = Float.NaN;
+    private float refaultPerSec = Float.NaN;
+    private float allocStallPerSec = Float.NaN;
+
+    private long lastSampleMs = -1L;
+    private Level memoryLevel = Level.UNKNOWN;
+
+    /** @param vmstat parser to sample /proc/vmstat with; shared so its buffers are reused */
+    public PressureMonitor(MemInfoParser vmstat) {
+        this("/proc/pressure", vmstat);
+    }
+
+    /** Alternate directory holding memory, cpu and io PSI files, e.g. recorded fixtures. */
+    public PressureMonitor(String pressureDir, MemInfoParser vmstat) {
+        this.vmstat = vmstat;
+        for (int i = 0; i < PSI_FILES.length; i++) {
+            psiReaders[i] = new ProcFileReader(pressureDir + "/" + PSI_FILES[i], 256);
+        }
+        for (int i = 0; i < SLOTS; i++) {
+            prevTotalUs[i] = -1L;
+        }
+        clearPsi();
+    }
+
+    /** Reads PSI and vmstat, updates per-second rates and the memory level. */
+    public Level sample(long nowMs) {
+        long elapsedMs = lastSampleMs > 0 ? nowMs - lastSampleMs : -1L;
+        clearPsi();
+        for (int r = 0; r < psiReaders.length; r++) {
+            if (psiReaders[r].read()) parsePsi(r, psiReaders[r]);
+        }
+        for (int i = 0; i < SLOTS; i++) {
+            if (totalUs[i] >= 0 && prevTotalUs[i] >= 0 && elapsedMs > 0 && totalUs[i] >= prevTotalUs[i]) {
+                stallUsPerSec[i] = (totalUs[i] - prevTotalUs[i]) * 1000f / elapsedMs;
+            }
+            prevTotalUs[i] = totalUs[i];
+        }
+
+        if (vmstat.sample()) {
+            long majfault = vmstat.get(MemInfoParser.PGMAJFAULT);
+            long pswpin = vmstat.get(MemInfoParser.PSWPIN);
+            long refault = vmstat.getWorkingsetRefault();
+            long allocStall = vmstat.getAllocStall();
+            majfaultPerSec = rate(majfault, prevMajfault, elapsedMs);
+            pswpinPerSec = rate(pswpin, prevPswpin, elapsedMs);
+            refaultPerSec = rate(refault, prevRefault, elapsedMs);
+            allocStallPerSec = rate(allocStall, prevAllocStall, elapsedMs);
+            prevMajfault = majfault;
+            prevPswpin = pswpin;
+            prevRefault = refault;
+            prevAllocStall = allocStall;
+        } else {
+            majfaultPerSec = pswpinPerSec = refaultPerSec = allocStallPerSec = Float.NaN;
+        }
+
+        lastSampleMs = nowMs;
+        memoryLevel = classifyMemory();
+        return memoryLevel;
+    }
+
+    /** Memory pressure from the last sample; UNKNOWN until PSI or two vmstat samples exist. */
+    public Level getMemoryLevel() {
+        return memoryLevel;
+    }
+
+    public boolean hasPsi() {
+        return !Float.isNaN(avg10[MEMORY * 2 + SOME]);
+    }
+
+    /** Share of the last 10 s in which some (or all, for FULL) tasks stalled on {@code resource}. */
+    public float getAvg10(int resource, int kind) {
+        return avg10[resource * 2 + kind];
+    }
+
+    public float getAvg60(int resource, int kind) {
+        return avg60[resource * 2 + kind];
+    }
+
+    /** Cumulative stall time in microseconds, or -1 if not reported. */
+    public long getTotalStallUs(int resource, int kind) {
+        return totalUs[resource * 2 + kind];
+    }
+
+    /** Stall microseconds per wall-clock second between the last two samples, or NaN. */
+    public float getStallUsPerSec(int resource, int kind) {
+        return stallUsPerSec[resource * 2 + kind];
+    }
+
+    public float getMajorFaultsPerSec() {
+        return majfaultPerSec;
+    }
+
+    public float getSwapInsPerSec() {
+        return pswpinPerSec;
+    }
+
+    public float getRefaultsPerSec() {
+        return refaultPerSec;
+    }
+
+    public float getAllocStallsPerSec() {
+        return allocStallPerSec;
+    }
+
+    private Level classifyMemory() {
+        if (hasPsi()) {
+            float some = avg10[MEMORY * 2 + SOME];
+            float full = avg10[MEMORY * 2 + FULL];
+            if (full >= FULL_HIGH_PCT || some >= SOME_HIGH_PCT) return Level.HIGH;
+            if (full >= FULL_MEDIUM_PCT || some >= SOME_MEDIUM_PCT) return Level.MEDIUM;
+            return Level.LOW;
+        }
+        if (Float.isNaN(majfaultPerSec) && Float.isNaN(refaultPerSec)) {
+            return Level.UNKNOWN;
+        }
+        // Direct reclaim stalls mean allocations are already waiting on reclaim
+        if (allocStallPerSec > 0f || atLeast(majfaultPerSec, MAJFAULT_HIGH)
+                || atLeast(refaultPerSec, REFAULT_HIGH) || atLeast(pswpinPerSec, PSWPIN_HIGH)) {
+            return Level.HIGH;
+        }
+        if (atLeast(majfaultPerSec, MAJFAULT_MEDIUM) || atLeast(refaultPerSec, REFAULT_MEDIUM)
+                || atLeast(pswpinPerSec, PSWPIN_MEDIUM)) {
+            return Level.MEDIUM;
+        }
+        return Level.LOW;
+    }
+
+    private static boolean atLeast(float value, float threshold) {
+        return !Float.isNaN(value) && value >= threshold;
+    }
+
+    private static float rate(long current, long previous, long elapsedMs) {
+        if (current < 0 || previous < 0 || elapsedMs <= 0 || current < previous) return Float.NaN;
+        return (current - previous) * 1000f / elapsedMs;
+    }
+
+    private void clearPsi() {
+        for (int i = 0; i < SLOTS; i++) {
+            avg10[i] = Float.NaN;
+            avg60[i] = Float.NaN;
+            totalUs[i] = -1L;
+            stallUsPerSec[i] = Float.NaN;
+        }
+    }
+
+    /** Parses "some avg10=0.12 avg60=0.05 avg300=0.01 total=12345" and the "full" line. */
+    private void parsePsi(int resource, ProcFileReader reader) {
+        byte[] buf = reader.buffer();
+        int len = reader.length();
+        int pos = 0;
+        while (pos < len) {
+            int slot;
+            if (reader.startsWith(pos, SOME_PREFIX)) {
+                slot = resource * 2 + SOME;
+            } else if (reader.startsWith(pos, FULL_PREFIX)) {
+                slot = resource * 2 + FULL;
+            } else {
+                pos = reader.nextLine(pos);
+                continue;
+            }
+            pos = reader.skipToken(pos);
+            while (pos < len && buf[pos] != '\n') {
+                pos = reader.skipBlanks(pos);
+                if (reader.startsWith(pos, AVG10)) {
+                    avg10[slot] = parseDecimal(buf, pos + AVG10.length, len);
+                } else if (reader.startsWith(pos, AVG60)) {
+                    avg60[slot] = parseDecimal(buf, pos + AVG60.length, len);
+                } else if (reader.startsWith(pos, TOTAL)) {
+                    totalUs[slot] = reader.parseLong(pos + TOTAL.length, -1L);
+                }
+                pos = reader.skipToken(pos);
+            }
+            pos = reader.nextLine(pos);
+        }
+    }
+
+    /** Parses an unsigned "12.34" style value; NaN if there are no digits. */
+    private static float parseDecimal(byte[] buf, int pos, int len) {
+        long whole = 0;
+        long frac = 0;
+        long scale = 1;
+        boolean digits = false;
+        while (pos < len && buf[pos] >= '0' && buf[pos] <= '9') {
+            whole = whole * 10 + (buf[pos++] - '0');
+            digits = true;
+        }
+        if (pos < len && buf[pos] == '.') {
+            pos++;
+            while (pos < len && buf[pos] >= '0' && buf[pos] <= '9' && scale < 1_000_000L) {
+                frac = frac * 10 + (buf[pos++] - '0');
+                scale *= 10;
+                digits = true;
+            }
+        }
+        return digits ? whole + (float) frac / scale : Float.NaN;
+    }
+}
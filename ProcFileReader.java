@@ -0,0 +1,185 @@
+package com.example.resourcemapperapp;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Reusable, allocation-free reader for small procfs/sysfs files.
+ * The file is opened once and re-read from offset 0 on every {@link #read()} into a
+ * preallocated byte buffer, so steady-state sampling creates no Strings or arrays.
+ * Parsing helpers work directly on the buffer. A file that fails to open or read (an offline
+ * core's cpufreq node, a path hidden by SELinux) is not retried for {@link #RETRY_NS}, so a
+ * missing file costs one exception per backoff instead of one per sample.
+ * Not thread-safe; use one instance per sampler.
+ */
+public class ProcFileReader {
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    /** Backoff after a failed open or read before the file is tried again. */
+    public static final long RETRY_NS = 10_000_000_000L;
+
+    private final String path;
+    private RandomAccessFile file;
+    private byte[] buffer;
+    private int length;
+    private boolean failed;
+    private long retryAtNs;
+
+    public ProcFileReader(String path) {
+        this(path, DEFAULT_CAPACITY);
+    }
+
+    public ProcFileReader(String path, int initialCapacity) {
+        this.path = path;
+        this.buffer = new byte[Math.max(64, initialCapacity)];
+    }
+
+    /**
+     * Re-reads the whole file into the internal buffer.
+     * Returns false (and leaves length at 0) if the file cannot be read, and without touching
+     * the file while a previous failure's backoff is running.
+     */
+    public boolean read() {
+        length = 0;
+        try {
+            if (file == null) {
+                if (failed && System.nanoTime() - retryAtNs < 0) return false;
+                file = new RandomAccessFile(path, "r");
+            }
+            file.seek(0);
+            int n;
+            while ((n = file.read(buffer, length, buffer.length - length)) > 0) {
+                length += n;
+                if (length == buffer.length) {
+                    // procfs reports size 0, so grow until the whole file fits; happens only on warmup
+                    byte[] bigger = new byte[buffer.length * 2];
+                    System.arraycopy(buffer, 0, bigger, 0, length);
+                    buffer = bigger;
+                }
+            }
+            return length > 0;
+        } catch (IOException e) {
+            close();
+            length = 0;
+            failed = true;
+            retryAtNs = System.nanoTime() + RETRY_NS;
+            return false;
+        }
+    }
+
+    public void close() {
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException ignored) {}
+            file = null;
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /** Returns true if the bytes at {@code pos} match the ASCII {@code prefix}. */
+    public boolean startsWith(int pos, byte[] prefix) {
+        if (pos < 0 || pos + prefix.length > length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer[pos + i] != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    /** Returns the offset of the first line starting with {@code prefix}, or -1. */
+    public int findLine(byte[] prefix) {
+        int pos = 0;
+        while (pos < length) {
+            if (startsWith(pos, prefix)) return pos;
+            pos = nextLine(pos);
+        }
+        return -1;
+    }
+
+    /** Returns the offset just past the next '\n' at or after {@code pos} (or length). */
+    public int nextLine(int pos) {
+        while (pos < length && buffer[pos] != '\n') pos++;
+        return pos < length ? pos + 1 : length;
+    }
+
+    /** Returns the offset of the first non-blank (space/tab) byte at or after {@code pos}. */
+    public int skipBlanks(int pos) {
+        while (pos < length && (buffer[pos] == ' ' || buffer[pos] == '\t')) pos++;
+        return pos;
+    }
+
+    /** Returns the offset of the first blank or newline at or after {@code pos}. */
+    public int skipToken(int pos) {
+        while (pos < length) {
+            byte c = buffer[pos];
+            if (c == ' ' || c == '\t' || c == '\n') break;
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Parses up to {@code max} whitespace-separated unsigned decimal values from {@code pos}
+     * to the end of the line into {@code out}. Returns the number of values parsed.
+     */
+    public int parseLongs(int pos, long[] out, int outOffset, int max) {
+        int count = 0;
+        while (count < max) {
+            pos = skipBlanks(pos);
+            if (pos >= length || buffer[pos] == '\n') break;
+            long value = 0;
+            boolean digits = false;
+            while (pos < length) {
+                int d = buffer[pos] - '0';
+                if (d < 0 || d > 9) break;
+                value = value * 10 + d;
+                digits = true;
+                pos++;
+            }
+            if (!digits) break;
+            out[outOffset + count++] = value;
+        }
+        return count;
+    }
+
+    /** Parses the unsigned decimal value at {@code pos} (after blanks), or returns {@code fallback}. */
+    public long parseLong(int pos, long fallback) {
+        pos = skipBlanks(pos);
+        long value = 0;
+        boolean digits = false;
+        while (pos < length) {
+            int d = buffer[pos] - '0';
+            if (d < 0 || d > 9) break;
+            value = value * 10 + d;
+            digits = true;
+            pos++;
+        }
+        return digits ? value : fallback;
+    }
+
+    /** Convenience for single-value sysfs files such as scaling_cur_freq; returns fallback on failure. */
+    public long readLong(long fallback) {
+        if (!read()) return fallback;
+        return parseLong(0, fallback);
+    }
+
+    /** Encodes an ASCII key once so it can be matched against the buffer without allocation. */
+    public static byte[] ascii(String s) {
+        byte[] b = new byte[s.length()];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = (byte) s.charAt(i);
+        }
+        return b;
+    }
+}
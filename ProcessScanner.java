@@ -0,0 +1,391 @@
+package com.example.resourcemapperapp;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Walks /proc/[pid]/stat and /proc/[pid]/statm for every readable process and keeps the
+ * top N by CPU and by RSS. Per-pid state lives in parallel primitive arrays addressed by an
+ * open-addressing (linear probing) table keyed by pid; names are decoded once per process
+ * lifetime. A scan still allocates the /proc listing and, per file read, a path String and
+ * a FileInputStream: keeping two descriptors open per process would avoid that but could
+ * exhaust the fd limit on hosts with thousands of processes. CPU% is only recomputed once
+ * {@link #MIN_CPU_INTERVAL_MS} has passed for a process, so tick jitter and back-to-back
+ * scans cannot turn a few clock ticks into a wild figure.
+ * Since Android 7 apps can usually see only their own processes (hidepid), so results
+ * reflect what the kernel exposes to this uid. Not thread-safe.
+ */
+public class ProcessScanner {
+
+    public static class ProcessEntry {
+        public int pid;
+        public String name;
+        public float cpuPercent; // of one core, 0..100 x cores; -1 until a full interval has passed
+        public long rssBytes;
+    }
+
+    private static final int INITIAL_CAPACITY = 1024; // power of two
+    private static final int READ_BUFFER_BYTES = 1024;
+    /** Shorter intervals keep the previous figure; clock ticks are 10 ms, so a rate needs several. */
+    public static final long MIN_CPU_INTERVAL_MS = 500L;
+
+    private final int topN;
+    private final float maxCpuPercent;
+    private final long pageSize;
+    private final long clockTicksPerSec;
+    private final File procDir = new File("/proc");
+    private final StringBuilder path = new StringBuilder(32);
+    private final byte[] buf = new byte[READ_BUFFER_BYTES];
+    private int bufLen;
+
+    // Open-addressing table; pid 0 marks an empty slot
+    private int capacity;
+    private int size;
+    private int[] pids;
+    private long[] startTimes;
+    private long[] cpuTicks;
+    private long[] cpuSampleMs; // when cpuTicks was taken
+    private float[] cpuPercent;
+    private long[] rssBytes;
+    private String[] names;
+    private int[] seenGeneration;
+    private int generation;
+
+    // Bounded min-heaps of table slots; drained into the sorted result arrays
+    private final int[] heap;
+    private final ProcessEntry[] topCpu;
+    private final ProcessEntry[] topRss;
+    private int topCpuCount;
+    private int topRssCount;
+    private int lastScanCount;
+
+    public ProcessScanner(int topN) {
+        this(topN, Runtime.getRuntime().availableProcessors(), 4096L, 100L);
+    }
+
+    /**
+     * @param coreCount CPUs a process can run on, bounding CPU% at 100 x coreCount
+     * @param pageSize bytes per statm page; @param clockTicksPerSec USER_HZ for stat times
+     */
+    public ProcessScanner(int topN, int coreCount, long pageSize, long clockTicksPerSec) {
+        this.topN = Math.max(1, topN);
+        this.maxCpuPercent = 100f * Math.max(1, coreCount);
+        this.pageSize = pageSize;
+        this.clockTicksPerSec = clockTicksPerSec;
+        heap = new int[this.topN];
+        topCpu = newEntries(this.topN);
+        topRss = newEntries(this.topN);
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /** Scans all visible processes and rebuilds both top-N lists; returns processes read. */
+    public int scan(long nowMs) {
+        generation++;
+        int count = 0;
+        String[] entries = procDir.list();
+        if (entries != null) {
+            for (String entry : entries) {
+                int pid = parsePid(entry);
+                if (pid > 0 && sampleProcess(pid, nowMs)) count++;
+            }
+        }
+        removeUnseen();
+        lastScanCount = count;
+        topCpuCount = selectTop(true, topCpu);
+        topRssCount = selectTop(false, topRss);
+        return count;
+    }
+
+    public int getProcessCount() {
+        return lastScanCount;
+    }
+
+    public int getTopCpuCount() {
+        return topCpuCount;
+    }
+
+    /** The i-th busiest process of the last scan (0 = highest CPU); reused between scans. */
+    public ProcessEntry getTopCpu(int i) {
+        return topCpu[i];
+    }
+
+    public int getTopRssCount() {
+        return topRssCount;
+    }
+
+    /** The i-th largest process of the last scan by resident memory; reused between scans. */
+    public ProcessEntry getTopRss(int i) {
+        return topRss[i];
+    }
+
+    private boolean sampleProcess(int pid, long nowMs) {
+        if (!readFile(pid, "/stat")) return false;
+        // comm may contain spaces and parentheses; fields resume after the last ')'
+        int close = bufLen - 1;
+        while (close > 0 && buf[close] != ')') close--;
+        if (close <= 0) return false;
+        int pos = close + 1;
+        // After ')': state(3) ... utime(14) stime(15) ... starttime(22)
+        long utime = -1, stime = -1, startTime = -1;
+        for (int field = 3; field <= 22 && pos < bufLen; field++) {
+            while (pos < bufLen && buf[pos] == ' ') pos++;
+            if (field == 14 || field == 15 || field == 22) {
+                long v = 0;
+                while (pos < bufLen && buf[pos] >= '0' && buf[pos] <= '9') {
+                    v = v * 10 + (buf[pos++] - '0');
+                }
+                if (field == 14) utime = v;
+                else if (field == 15) stime = v;
+                else startTime = v;
+            }
+            while (pos < bufLen && buf[pos] != ' ' && buf[pos] != '\n') pos++;
+        }
+        if (utime < 0 || stime < 0 || startTime < 0) return false;
+        long ticks = utime + stime;
+
+        int slot = findSlot(pid);
+        if (pids[slot] != pid || startTimes[slot] != startTime) {
+            // New process, or the pid was reused by a different one
+            if (pids[slot] != pid) {
+                if ((size + 1) * 2 > capacity) {
+                    grow();
+                    slot = findSlot(pid);
+                }
+                pids[slot] = pid;
+                size++;
+            }
+            startTimes[slot] = startTime;
+            names[slot] = readName(pid, close);
+            cpuPercent[slot] = -1f;
+            cpuTicks[slot] = ticks;
+            cpuSampleMs[slot] = nowMs;
+        } else {
+            long elapsedMs = nowMs - cpuSampleMs[slot];
+            if (elapsedMs >= MIN_CPU_INTERVAL_MS) {
+                // Keep the baseline across short scans so the next interval is long enough
+                float pct = ticks >= cpuTicks[slot]
+                        ? (ticks - cpuTicks[slot]) * 100_000f / (clockTicksPerSec * elapsedMs) : 0f;
+                cpuPercent[slot] = Math.min(pct, maxCpuPercent);
+                cpuTicks[slot] = ticks;
+                cpuSampleMs[slot] = nowMs;
+            } else if (elapsedMs < 0) {
+                // Clock went backwards; start a new interval
+                cpuTicks[slot] = ticks;
+                cpuSampleMs[slot] = nowMs;
+            }
+        }
+        seenGeneration[slot] = generation;
+
+        // statm: size resident shared text lib data dt (pages)
+        rssBytes[slot] = -1L;
+        if (readFile(pid, "/statm")) {
+            int p = 0;
+            while (p < bufLen && buf[p] != ' ') p++;
+            p++;
+            long resident = 0;
+            boolean digits = false;
+            while (p < bufLen && buf[p] >= '0' && buf[p] <= '9') {
+                resident = resident * 10 + (buf[p++] - '0');
+                digits = true;
+            }
+            if (digits) rssBytes[slot] = resident * pageSize;
+        }
+        return true;
+    }
+
+    /** Process name from cmdline (full package name), falling back to the stat comm field. */
+    private String readName(int pid, int commClose) {
+        int open = 0;
+        while (open < commClose && buf[open] != '(') open++;
+        String comm = new String(buf, open + 1, Math.max(0, commClose - open - 1), StandardCharsets.UTF_8);
+        if (readFile(pid, "/cmdline")) {
+            int end = 0;
+            while (end < bufLen && buf[end] != 0) end++;
+            if (end > 0) return new String(buf, 0, end, StandardCharsets.UTF_8);
+        }
+        return comm;
+    }
+
+    private boolean readFile(int pid, String suffix) {
+        path.setLength(0);
+        path.append("/proc/").append(pid).append(suffix);
+        bufLen = 0;
+        try (FileInputStream in = new FileInputStream(path.toString())) {
+            int n;
+            while (bufLen < buf.length && (n = in.read(buf, bufLen, buf.length - bufLen)) > 0) {
+                bufLen += n;
+            }
+            return bufLen > 0;
+        } catch (IOException | SecurityException e) {
+            // Process exited or is not readable by this uid
+            return false;
+        }
+    }
+
+    private static int parsePid(String name) {
+        int pid = 0;
+        int len = name.length();
+        if (len == 0 || len > 9) return -1;
+        for (int i = 0; i < len; i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            pid = pid * 10 + (c - '0');
+        }
+        return pid;
+    }
+
+    /** Slot holding {@code pid}, or the empty slot where it would be inserted. */
+    private int findSlot(int pid) {
+        int mask = capacity - 1;
+        int slot = mix(pid) & mask;
+        while (pids[slot] != 0 && pids[slot] != pid) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(int pid) {
+        int h = pid * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Drops processes not seen this scan, using backward-shift deletion (no tombstones). */
+    private void removeUnseen() {
+        int mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            while (pids[i] != 0 && seenGeneration[i] != generation) {
+                // Delete slot i, then pull back later entries of the same probe run
+                int hole = i;
+                int j = i;
+                while (true) {
+                    j = (j + 1) & mask;
+                    if (pids[j] == 0) break;
+                    int home = mix(pids[j]) & mask;
+                    // Move j into the hole unless its home lies cyclically in (hole, j]
+                    boolean homeBetween = hole <= j ? (home > hole && home <= j) : (home > hole || home <= j);
+                    if (!homeBetween) {
+                        move(j, hole);
+                        hole = j;
+                    }
+                }
+                pids[hole] = 0;
+                names[hole] = null;
+                size--;
+            }
+        }
+    }
+
+    private void move(int from, int to) {
+        pids[to] = pids[from];
+        startTimes[to] = startTimes[from];
+        cpuTicks[to] = cpuTicks[from];
+        cpuSampleMs[to] = cpuSampleMs[from];
+        cpuPercent[to] = cpuPercent[from];
+        rssBytes[to] = rssBytes[from];
+        names[to] = names[from];
+        seenGeneration[to] = seenGeneration[from];
+    }
+
+    private int selectTop(boolean byCpu, ProcessEntry[] out) {
+        int n = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            if (pids[slot] == 0) continue;
+            if (byCpu ? cpuPercent[slot] < 0f : rssBytes[slot] < 0) continue;
+            if (n < topN) {
+                heap[n] = slot;
+                siftUp(n++, byCpu);
+            } else if (less(heap[0], slot, byCpu)) {
+                heap[0] = slot;
+                siftDown(0, n, byCpu);
+            }
+        }
+        // Pop the minimum into the tail so the output ends up in descending order
+        int count = n;
+        while (n > 0) {
+            int slot = heap[0];
+            n--;
+            heap[0] = heap[n];
+            siftDown(0, n, byCpu);
+            ProcessEntry e = out[n];
+            e.pid = pids[slot];
+            e.name = names[slot];
+            e.cpuPercent = cpuPercent[slot];
+            e.rssBytes = rssBytes[slot];
+        }
+        return count;
+    }
+
+    private boolean less(int a, int b, boolean byCpu) {
+        return byCpu ? cpuPercent[a] < cpuPercent[b] : rssBytes[a] < rssBytes[b];
+    }
+
+    private void siftUp(int i, boolean byCpu) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(heap[i], heap[parent], byCpu)) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i, int n, boolean byCpu) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= n) break;
+            int smallest = left + 1 < n && less(heap[left + 1], heap[left], byCpu) ? left + 1 : left;
+            if (!less(heap[smallest], heap[i], byCpu)) break;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int t = heap[a];
+        heap[a] = heap[b];
+        heap[b] = t;
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        pids = new int[newCapacity];
+        startTimes = new long[newCapacity];
+        cpuTicks = new long[newCapacity];
+        cpuSampleMs = new long[newCapacity];
+        cpuPercent = new float[newCapacity];
+        rssBytes = new long[newCapacity];
+        names = new String[newCapacity];
+        seenGeneration = new int[newCapacity];
+    }
+
+    private void grow() {
+        int[] oldPids = pids;
+        long[] oldStart = startTimes;
+        long[] oldTicks = cpuTicks;
+        long[] oldSampleMs = cpuSampleMs;
+        float[] oldCpu = cpuPercent;
+        long[] oldRss = rssBytes;
+        String[] oldNames = names;
+        int[] oldSeen = seenGeneration;
+        allocate(capacity * 2);
+        for (int i = 0; i < oldPids.length; i++) {
+            if (oldPids[i] == 0) continue;
+            int slot = findSlot(oldPids[i]);
+            pids[slot] = oldPids[i];
+            startTimes[slot] = oldStart[i];
+            cpuTicks[slot] = oldTicks[i];
+            cpuSampleMs[slot] = oldSampleMs[i];
+            cpuPercent[slot] = oldCpu[i];
+            rssBytes[slot] = oldRss[i];
+            names[slot] = oldNames[i];
+            seenGeneration[slot] = oldSeen[i];
+        }
+    }
+
+    private static ProcessEntry[] newEntries(int n) {
+        ProcessEntry[] entries = new ProcessEntry[n];
+        for (int i = 0; i < n; i++) entries[i] = new ProcessEntry();
+        return entries;
+    }
+}
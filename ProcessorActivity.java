@@ -1,75 +1,56 @@
 package com.example.resourcemapperapp;
 
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
 
 public class ProcessorActivity extends AppCompatActivity {
 
-    private StatsProvider statsProvider;
-    private final Handler handler = new Handler(Looper.getMainLooper());
-
-    private final Runnable updateTask = new Runnable() {
-        @Override
-        public void run() {
-            updateProcessorDetails();
-            handler.postDelayed(this, 1000);
-        }
-    };
+    // Shared engine: collection (/proc, sysfs, EGL) runs on the sampler thread; results are applied here
+    private SamplingEngine engine;
+    // Details (process scan, per-core text) are only built while this screen is visible
+    private final SamplingEngine.Listener engineListener =
+            e -> e.request(StatsProvider::collectProcessorDetails, this::updateProcessorDetails);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_processor);
 
-        statsProvider = new StatsProvider(this);
-        // Initial update - this will show "-" for CPU usage (needs 2 samples)
-        updateProcessorDetails();
-        
-        // Start continuous updates immediately
-        // This ensures CPU usage updates every second continuously
-        handler.post(updateTask);
+        engine = SamplingEngine.get(this);
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        // Ensure updates continue when activity resumes
-        // Remove any existing callbacks first to avoid duplicates
-        handler.removeCallbacks(updateTask);
-        handler.post(updateTask);
+        // The engine keeps its CPU baselines across screens, so the last tick's samples are already live
+        engine.request(StatsProvider::collectProcessorDetails, this::updateProcessorDetails);
+        engine.addListener(engineListener);
     }
 
     @Override
     protected void onPause() {
         super.onPause();
         // Stop updates when screen is not visible to save resources
-        handler.removeCallbacks(updateTask);
-    }
-    
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        // Clean up handler when activity is destroyed
-        handler.removeCallbacks(updateTask);
+        engine.removeListener(engineListener);
     }
 
-    private void updateProcessorDetails() {
-        StatsProvider.ProcessorDetails d = statsProvider.collectProcessorDetails();
-
+    private void updateProcessorDetails(StatsProvider.ProcessorDetails d) {
         ((TextView) findViewById(R.id.rowModel)).setText(d.model);
         // CPU usage (rowUsage) comes from StatsProvider (overall CPU when available)
-        ((TextView) findViewById(R.id.rowUsage)).setText(d.usagePercent);
-        ((TextView) findViewById(R.id.rowCurFreq)).setText(d.currentFreq);
+        // followed by the busiest visible processes when /proc exposes them
+        ((TextView) findViewById(R.id.rowUsage)).setText("-".equals(d.topProcesses)
+                ? d.usagePercent : d.usagePercent + "\n" + d.topProcesses);
+        // Per-core frequency and load when available, so big.LITTLE imbalance is visible
+        ((TextView) findViewById(R.id.rowCurFreq)).setText("-".equals(d.perCore) ? d.currentFreq : d.perCore);
         ((TextView) findViewById(R.id.rowDesignFreq)).setText(d.designFreq);
         ((TextView) findViewById(R.id.rowInstrSet)).setText(d.instructionSet);
         ((TextView) findViewById(R.id.rowMicroArch)).setText(d.microArch);
         ((TextView) findViewById(R.id.rowProcess)).setText(d.processNm);
         ((TextView) findViewById(R.id.rowCoreCount)).setText(d.coreCount);
-        ((TextView) findViewById(R.id.rowThermal)).setText(d.thermalState);
+        ((TextView) findViewById(R.id.rowThermal)).setText("-".equals(d.thermalZones)
+                ? d.thermalState : d.thermalState + "\n" + d.thermalZones);
 
         ((TextView) findViewById(R.id.rowCoProcModel)).setText(d.coprocessorModel);
         ((TextView) findViewById(R.id.rowGpuType)).setText(d.gpuType);
@@ -0,0 +1,235 @@
+package com.example.resourcemapperapp;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Process-wide sampling engine. One {@link StatsProvider} is shared by every screen, so
+ * CPU and network delta baselines survive navigation, and the latest results are
+ * published through atomically swapped references that any thread can read without
+ * locking. All StatsProvider access happens on the sampler thread; published objects
+ * are never modified afterwards.
+ */
+public class SamplingEngine {
+
+    public interface Listener {
+        /** Called on the main thread after each tick has published new results. */
+        void onTick(SamplingEngine engine);
+    }
+
+    public interface Collector<T> {
+        T collect(StatsProvider provider);
+    }
+
+    private static final String TAG = "SamplingEngine";
+    private static final long TICK_MS = 1000;
+    private static SamplingEngine instance;
+
+    private final StatsProvider provider;
+    private final AtomicReference<StatsProvider.Snapshot> snapshot = new AtomicReference<>();
+    private final MetricHistory history;
+    private SessionRecorder recorder; // sampler thread only
+    private File recorderFile;
+    private float[] recorderRow;
+    private File recordingFile; // main thread only: recording requested and not yet ended
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final List<BatteryMonitor.Listener> batteryListeners = new CopyOnWriteArrayList<>();
+    private final SamplingScheduler<StatsProvider.Snapshot> scheduler;
+    private final Handler worker = new Handler(SamplingScheduler.samplerLooper());
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    public static synchronized SamplingEngine get(Context context) {
+        if (instance == null) {
+            instance = new SamplingEngine(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private SamplingEngine(Context context) {
+        provider = new StatsProvider(context);
+        history = new MetricHistory(provider.getCpuCoreSampler().getCoreCount(), provider.getThermalSampler());
+        Log.d(TAG, "history: " + history.getAll().size() + " metrics, "
+                + (history.getFootprintBytes() / 1024) + " KiB reserved for 24 h of rollups");
+        scheduler = new SamplingScheduler<>("engine", TICK_MS, this::tick, s -> notifyListeners());
+        provider.getBatteryMonitor().addListener(m -> main.post(() -> notifyBatteryListeners(m)));
+    }
+
+    private StatsProvider.Snapshot tick() {
+        StatsProvider.Snapshot s = provider.collectSnapshot();
+        // Primitive samples only; processor text and the process scan are built on request
+        provider.sampleProcessor();
+        long now = System.currentTimeMillis();
+        history.record(provider, now);
+        if (recorder != null) {
+            history.fillRow(now, recorderRow);
+            try {
+                recorder.append(now, recorderRow);
+            } catch (IOException e) {
+                Log.w(TAG, "recording stopped", e);
+                File failed = recorderFile;
+                closeRecorder();
+                main.post(() -> recordingEnded(failed));
+            }
+        }
+        snapshot.set(s);
+        return s;
+    }
+
+    private void notifyListeners() {
+        for (Listener l : listeners) {
+            l.onTick(this);
+        }
+    }
+
+    private void notifyBatteryListeners(BatteryMonitor monitor) {
+        for (BatteryMonitor.Listener l : batteryListeners) {
+            l.onBatteryChanged(monitor);
+        }
+    }
+
+    /** Registers a main-thread listener; sampling runs while at least one is registered or recording. */
+    public void addListener(Listener listener) {
+        if (listeners.contains(listener)) return;
+        listeners.add(listener);
+        updateRunning();
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+        updateRunning();
+    }
+
+    /**
+     * Registers a listener told on the main thread when a battery value changes (broadcast or
+     * counter poll), without waiting for a tick. Keeps the battery monitor running, not the ticks.
+     */
+    public void addBatteryListener(BatteryMonitor.Listener listener) {
+        if (batteryListeners.contains(listener)) return;
+        batteryListeners.add(listener);
+        updateRunning();
+    }
+
+    public void removeBatteryListener(BatteryMonitor.Listener listener) {
+        batteryListeners.remove(listener);
+        updateRunning();
+    }
+
+    /**
+     * Ticks run while a tick listener is registered or a recording is open. The battery
+     * receiver and its counter poll run while either kind of listener is, or while ticking
+     * (ticks read battery values too), so nothing stays registered once the app is in the
+     * background unless a session is being recorded.
+     */
+    private void updateRunning() {
+        BatteryMonitor battery = provider.getBatteryMonitor();
+        boolean ticking = !listeners.isEmpty() || recordingFile != null;
+        if (ticking) {
+            scheduler.start();
+        } else {
+            scheduler.stop();
+        }
+        if (!ticking && batteryListeners.isEmpty()) {
+            battery.stop();
+        } else {
+            battery.start();
+        }
+    }
+
+    /** Latest overview snapshot, or null before the first tick. Safe from any thread. */
+    public StatsProvider.Snapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * The shared battery monitor; its getters are safe from any thread. It only updates while
+     * a listener of either kind is registered (or a recording is open).
+     */
+    public BatteryMonitor getBatteryMonitor() {
+        return provider.getBatteryMonitor();
+    }
+
+    /** Time series of every sampled metric; queries are safe from any thread. */
+    public MetricHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Starts streaming every tick's samples into a binary session file (see
+     * {@link SessionRecorder}), replacing any recording in progress. The engine keeps
+     * ticking until {@link #stopRecording()}, even with no screen listening, for as long as
+     * the process lives. Main thread only.
+     */
+    public void startRecording(File output) {
+        recordingFile = output;
+        updateRunning();
+        worker.post(() -> {
+            closeRecorder();
+            try {
+                recorder = new SessionRecorder(output, history.getNames(), history.getUnits());
+                recorderFile = output;
+                recorderRow = new float[recorder.getMetricCount()];
+            } catch (IOException e) {
+                Log.w(TAG, "cannot record to " + output, e);
+                recorder = null;
+                main.post(() -> recordingEnded(output));
+            }
+        });
+    }
+
+    /** Main thread only. */
+    public void stopRecording() {
+        recordingFile = null;
+        updateRunning();
+        worker.post(this::closeRecorder);
+    }
+
+    /** File being recorded to, or null; becomes null again if the recorder fails. Main thread only. */
+    public File getRecordingFile() {
+        return recordingFile;
+    }
+
+    private void recordingEnded(File output) {
+        // A failure reported late must not end a recording started since
+        if (output != null && output.equals(recordingFile)) {
+            recordingFile = null;
+            updateRunning();
+        }
+    }
+
+    private void closeRecorder() {
+        if (recorder == null) return;
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            Log.w(TAG, "failed to close recording", e);
+        }
+        recorder = null;
+        recorderFile = null;
+    }
+
+    /**
+     * Runs a one-off collection against the shared provider on the sampler thread
+     * (serialised with the ticks) and delivers the result on the main thread. A collector
+     * that throws is logged and its listener is not called, as with a failed tick.
+     */
+    public <T> void request(Collector<T> collector, SamplingScheduler.Listener<T> listener) {
+        worker.post(() -> {
+            T result;
+            try {
+                result = collector.collect(provider);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "request collector failed", e);
+                return;
+            }
+            main.post(() -> listener.onSample(result));
+        });
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.resourcemapperapp;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Runs a collector on a shared background thread at a fixed rate and hands each
+ * result to a listener on the main thread, so the UI thread only applies values.
+ * A result must not be modified after the collector returns it.
+ */
+public class SamplingScheduler<T> {
+
+    public interface Collector<T> {
+        T collect();
+    }
+
+    public interface Listener<T> {
+        void onSample(T sample);
+    }
+
+    private static final String TAG = "SamplingScheduler";
+    private static HandlerThread samplerThread;
+
+    private final String name;
+    private final Collector<T> collector;
+    private final Listener<T> listener;
+    private final long periodMs;
+    private final Handler worker = new Handler(samplerLooper());
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final TickStats stats;
+    private volatile boolean running;
+    private long nextRunUptimeMs;
+
+    // Latest result handed from the sampler thread to the main thread
+    private volatile T pending;
+    private volatile long pendingCollectNs;
+
+    private final Runnable collectTask = new Runnable() {
+        @Override
+        public void run() {
+            if (!running) return;
+            long start = System.nanoTime();
+            T sample;
+            try {
+                sample = collector.collect();
+            } catch (Exception e) {
+                Log.w(TAG, name + ": collector failed", e);
+                sample = null;
+            }
+            if (sample != null) {
+                pendingCollectNs = System.nanoTime() - start;
+                pending = sample;
+                main.post(deliverTask);
+            }
+            if (!running) return;
+            // Fixed rate: a slow collection does not push every following tick back
+            nextRunUptimeMs += periodMs;
+            long now = SystemClock.uptimeMillis();
+            if (nextRunUptimeMs <= now) {
+                nextRunUptimeMs = now + periodMs;
+            }
+            worker.postAtTime(this, nextRunUptimeMs);
+        }
+    };
+
+    private final Runnable deliverTask = new Runnable() {
+        @Override
+        public void run() {
+            T sample = pending;
+            if (!running || sample == null) return;
+            long start = System.nanoTime();
+            listener.onSample(sample);
+            stats.record(pendingCollectNs, System.nanoTime() - start);
+        }
+    };
+
+    public SamplingScheduler(String name, long periodMs, Collector<T> collector, Listener<T> listener) {
+        this.name = name;
+        this.periodMs = periodMs;
+        this.collector = collector;
+        this.listener = listener;
+        this.stats = new TickStats(name);
+    }
+
+    // Runs on the sampler thread, after any in-flight collection, so restarts never double the chain
+    private final Runnable startTask = new Runnable() {
+        @Override
+        public void run() {
+            worker.removeCallbacks(collectTask);
+            nextRunUptimeMs = SystemClock.uptimeMillis();
+            collectTask.run();
+        }
+    };
+
+    /** Starts sampling immediately; safe to call again after {@link #stop()}. */
+    public void start() {
+        if (running) return;
+        running = true;
+        worker.post(startTask);
+    }
+
+    public void stop() {
+        running = false;
+        worker.removeCallbacks(startTask);
+        worker.removeCallbacks(collectTask);
+        main.removeCallbacks(deliverTask);
+    }
+
+    public TickStats getStats() {
+        return stats;
+    }
+
+    static synchronized Looper samplerLooper() {
+        if (samplerThread == null) {
+            samplerThread = new HandlerThread("stats-sampler", Process.THREAD_PRIORITY_BACKGROUND);
+            samplerThread.start();
+        }
+        return samplerThread.getLooper();
+    }
+
+    /**
+     * Jank instrumentation: per tick, the time spent collecting on the sampler thread and
+     * the time the main thread spends applying the result, reported separately. Logged
+     * every {@link #LOG_EVERY_TICKS} ticks.
+     */
+    public static class TickStats {
+        public static final int LOG_EVERY_TICKS = 30;
+
+        private final String name;
+        private int ticks;
+        private long collectNsSum;
+        private long collectNsMax;
+        private long mainNsSum;
+        private long mainNsMax;
+
+        TickStats(String name) {
+            this.name = name;
+        }
+
+        void record(long collectNs, long mainNs) {
+            ticks++;
+            collectNsSum += collectNs;
+            mainNsSum += mainNs;
+            if (collectNs > collectNsMax) collectNsMax = collectNs;
+            if (mainNs > mainNsMax) mainNsMax = mainNs;
+            if (ticks >= LOG_EVERY_TICKS) {
+                Log.d(TAG, name + ": main thread " + (mainNsSum / ticks / 1000) + " us avg, "
+                        + (mainNsMax / 1000) + " us max per tick; sampler thread "
+                        + (collectNsSum / ticks / 1000) + " us avg, "
+                        + (collectNsMax / 1000) + " us max over " + ticks + " ticks");
+                reset();
+            }
+        }
+
+        private void reset() {
+            ticks = 0;
+            collectNsSum = 0;
+            collectNsMax = 0;
+            mainNsSum = 0;
+            mainNsMax = 0;
+        }
+    }
+}
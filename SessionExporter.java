@@ -0,0 +1,220 @@
+package com.example.resourcemapperapp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams a {@link SessionReader} recording to CSV or newline-delimited JSON in constant
+ * memory. Rows are formatted straight into a reusable byte buffer with hand-rolled
+ * integer/decimal formatting (no String.format, no per-row Strings) and the buffer is
+ * written out whenever it fills. Missing samples (NaN) become empty CSV cells or JSON null.
+ */
+public class SessionExporter {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    /** Decimal places written for values; trailing zeros are trimmed. */
+    private static final int DECIMALS = 3;
+    /** Values at or above this are written in exponent form; fixed point would overflow a long. */
+    private static final double EXPONENT_FROM = 1e15;
+    /** Fraction digits of the exponent-form mantissa: 7 significant digits, a float's precision. */
+    private static final int MANTISSA_DECIMALS = 6;
+    private static final long[] POW10 = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+    private final OutputStream out;
+    private final Format format;
+    private final byte[] buf = new byte[BUFFER_BYTES];
+    private int len;
+    private byte[][] jsonKeys;
+
+    private SessionExporter(OutputStream out, Format format) {
+        this.out = out;
+        this.format = format;
+    }
+
+    /**
+     * Writes every row of {@code reader} to {@code out} and returns the row count.
+     * The stream is flushed but not closed.
+     */
+    public static long export(SessionReader reader, OutputStream out, Format format) throws IOException {
+        return export(reader, Long.MIN_VALUE, Long.MAX_VALUE, out, format);
+    }
+
+    /** Like {@link #export(SessionReader, OutputStream, Format)}, limited to [fromMs, toMs]. */
+    public static long export(SessionReader reader, long fromMs, long toMs, OutputStream out, Format format)
+            throws IOException {
+        SessionExporter exporter = new SessionExporter(out, format);
+        exporter.writeHeader(reader.getMetricNames());
+        final IOException[] failure = new IOException[1];
+        long rows = reader.scan(fromMs, toMs, (ts, values) -> {
+            if (failure[0] != null) return;
+            try {
+                exporter.writeRow(ts, values);
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) throw failure[0];
+        exporter.drain();
+        out.flush();
+        return rows;
+    }
+
+    private void writeHeader(String[] names) throws IOException {
+        if (format == Format.CSV) {
+            appendAscii("timestamp_ms");
+            for (String name : names) {
+                ensure(name.length() * 3 + 2);
+                buf[len++] = ',';
+                appendUtf8(name);
+            }
+            buf[len++] = '\n';
+        } else {
+            // Pre-encode ,"name": once so rows only copy bytes
+            jsonKeys = new byte[names.length][];
+            for (int i = 0; i < names.length; i++) {
+                jsonKeys[i] = (",\"" + names[i].replace("\\", "\\\\").replace("\"", "\\\"") + "\":")
+                        .getBytes(StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private void writeRow(long timestampMs, float[] values) throws IOException {
+        if (format == Format.CSV) {
+            ensure(32);
+            appendLong(timestampMs);
+            for (float v : values) {
+                // Per value, so a row wider than the buffer is written out in pieces
+                ensure(32);
+                buf[len++] = ',';
+                if (!Float.isNaN(v)) appendDecimal(v);
+            }
+            buf[len++] = '\n';
+        } else {
+            ensure(32);
+            appendAscii("{\"t\":");
+            appendLong(timestampMs);
+            for (int i = 0; i < values.length; i++) {
+                byte[] key = jsonKeys[i];
+                ensure(key.length + 32);
+                System.arraycopy(key, 0, buf, len, key.length);
+                len += key.length;
+                float v = values[i];
+                if (Float.isNaN(v) || Float.isInfinite(v)) {
+                    System.arraycopy(NULL, 0, buf, len, NULL.length);
+                    len += NULL.length;
+                } else {
+                    appendDecimal(v);
+                }
+            }
+            buf[len++] = '}';
+            buf[len++] = '\n';
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (len + bytes > buf.length) drain();
+    }
+
+    private void drain() throws IOException {
+        if (len > 0) {
+            out.write(buf, 0, len);
+            len = 0;
+        }
+    }
+
+    private void appendAscii(String s) throws IOException {
+        ensure(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            buf[len++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void appendUtf8(String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(b, 0, buf, len, b.length);
+        len += b.length;
+    }
+
+    /** Writes a decimal integer; caller guarantees 20 bytes of space. */
+    private void appendLong(long v) {
+        if (v == Long.MIN_VALUE) {
+            // Cannot be negated; never a real timestamp or sample
+            appendLong(v / 10);
+            buf[len++] = '8';
+            return;
+        }
+        if (v < 0) {
+            buf[len++] = '-';
+            v = -v;
+        }
+        int start = len;
+        do {
+            buf[len++] = (byte) ('0' + (v % 10));
+            v /= 10;
+        } while (v != 0);
+        // Digits were written least-significant first
+        for (int i = start, j = len - 1; i < j; i++, j--) {
+            byte t = buf[i];
+            buf[i] = buf[j];
+            buf[j] = t;
+        }
+    }
+
+    /**
+     * Writes {@code v} rounded to {@link #DECIMALS} places with trailing zeros trimmed, or
+     * from {@link #EXPONENT_FROM} up as e.g. "3.402823E38"; caller guarantees 32 bytes.
+     */
+    private void appendDecimal(float v) {
+        if (Float.isInfinite(v)) {
+            // Not representable as a plain number; leave the cell empty
+            return;
+        }
+        double d = Math.abs((double) v);
+        if (d >= EXPONENT_FROM) {
+            appendExponent(v < 0, d);
+            return;
+        }
+        long scaled = Math.round(d * POW10[DECIMALS]);
+        if (v < 0 && scaled != 0) {
+            buf[len++] = '-';
+        }
+        appendLong(scaled / POW10[DECIMALS]);
+        appendFraction(scaled % POW10[DECIMALS], DECIMALS);
+    }
+
+    private void appendExponent(boolean negative, double d) {
+        int exp = (int) Math.floor(Math.log10(d));
+        long mantissa = Math.round(d / Math.pow(10, exp) * POW10[MANTISSA_DECIMALS]);
+        // log10 and the rounding can each land one digit off
+        if (mantissa >= 10 * POW10[MANTISSA_DECIMALS]) {
+            mantissa = Math.round(mantissa / 10.0);
+            exp++;
+        } else if (mantissa < POW10[MANTISSA_DECIMALS]) {
+            mantissa = Math.round(d / Math.pow(10, --exp) * POW10[MANTISSA_DECIMALS]);
+        }
+        if (negative) {
+            buf[len++] = '-';
+        }
+        appendLong(mantissa / POW10[MANTISSA_DECIMALS]);
+        appendFraction(mantissa % POW10[MANTISSA_DECIMALS], MANTISSA_DECIMALS);
+        buf[len++] = 'E';
+        appendLong(exp);
+    }
+
+    /** Writes ".digits" for a {@code decimals}-place fraction, trailing zeros trimmed; nothing for 0. */
+    private void appendFraction(long frac, int decimals) {
+        if (frac == 0) return;
+        while (frac % 10 == 0) {
+            frac /= 10;
+            decimals--;
+        }
+        buf[len++] = '.';
+        for (int i = decimals - 1; i >= 0; i--) {
+            buf[len++] = (byte) ('0' + (frac / POW10[i]) % 10);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.resourcemapperapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads files written by {@link SessionRecorder}. The file is memory-mapped read-only and
+ * decoded block by block; blocks outside a requested time range are skipped using their
+ * header, so range scans only decode what they return.
+ */
+public class SessionReader {
+
+    public interface RowVisitor {
+        /** {@code values} is reused between rows; copy it if it must outlive the call. */
+        void onRow(long timestampMs, float[] values);
+    }
+
+    private final MappedByteBuffer data;
+    private final String[] metricNames;
+    private final String[] metricUnits;
+    private final int dataStart;
+
+    public SessionReader(File input) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(input, "r")) {
+            FileChannel channel = file.getChannel();
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        if (data.remaining() < 8 || data.getInt() != SessionRecorder.MAGIC) {
+            throw new IOException("Not a session recording: " + input);
+        }
+        short version = data.getShort();
+        if (version != SessionRecorder.VERSION) {
+            throw new IOException("Unsupported session version " + version);
+        }
+        int count = data.getShort();
+        metricNames = new String[count];
+        metricUnits = new String[count];
+        for (int i = 0; i < count; i++) {
+            metricNames[i] = readString();
+            metricUnits[i] = readString();
+        }
+        dataStart = data.position();
+    }
+
+    public String[] getMetricNames() {
+        return metricNames.clone();
+    }
+
+    public String[] getMetricUnits() {
+        return metricUnits.clone();
+    }
+
+    /** Visits every row; returns the number of rows visited. */
+    public long scan(RowVisitor visitor) {
+        return scan(Long.MIN_VALUE, Long.MAX_VALUE, visitor);
+    }
+
+    /** Visits rows with timestamps in [fromMs, toMs]; returns the number of rows visited. */
+    public long scan(long fromMs, long toMs, RowVisitor visitor) {
+        int metricCount = metricNames.length;
+        long[] timestamps = new long[0];
+        float[] columns = new float[0];
+        float[] row = new float[metricCount];
+        long visited = 0;
+        int pos = dataStart;
+        int limit = data.limit();
+        while (pos + SessionRecorder.BLOCK_HEADER_BYTES <= limit) {
+            int rows = data.getInt(pos);
+            int payload = data.getInt(pos + 4);
+            long first = data.getLong(pos + 8);
+            long last = data.getLong(pos + 16);
+            if (rows <= 0) break; // zero-filled tail: end of data
+            int payloadStart = pos + SessionRecorder.BLOCK_HEADER_BYTES;
+            pos = payloadStart + payload;
+            if (last < fromMs || first > toMs) continue;
+
+            if (timestamps.length < rows) {
+                timestamps = new long[rows];
+                columns = new float[rows * metricCount];
+            }
+            data.position(payloadStart);
+            timestamps[0] = first;
+            long delta = 0;
+            for (int r = 1; r < rows; r++) {
+                delta += unzigzag(readVarLong());
+                timestamps[r] = timestamps[r - 1] + delta;
+            }
+            for (int m = 0; m < metricCount; m++) {
+                int bits = 0;
+                int base = m * rows;
+                for (int r = 0; r < rows; r++) {
+                    bits ^= readVarInt();
+                    columns[base + r] = Float.intBitsToFloat(bits);
+                }
+            }
+            for (int r = 0; r < rows; r++) {
+                long ts = timestamps[r];
+                if (ts < fromMs || ts > toMs) continue;
+                for (int m = 0; m < metricCount; m++) {
+                    row[m] = columns[m * rows + r];
+                }
+                visitor.onRow(ts, row);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    private String readString() {
+        int len = data.getShort() & 0xFFFF;
+        byte[] b = new byte[len];
+        data.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private long readVarLong() {
+        long result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data.get();
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+
+    private int readVarInt() {
+        int result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data.get();
+            result |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
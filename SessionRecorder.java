@@ -0,0 +1,187 @@
+package com.example.resourcemapperapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams sampled rows into a compact binary columnar file through a memory-mapped
+ * {@link FileChannel}. Rows are staged in primitive arrays and encoded a block at a time:
+ * timestamps as zigzag varint delta-of-deltas, each metric column as varints of the XOR
+ * between consecutive float bit patterns (so unchanged values take one byte).
+ *
+ * <pre>
+ * header: int magic, short version, short metricCount, metricCount x (name, unit)
+ *         where strings are short length + UTF-8 bytes
+ * block:  int rowCount, int payloadBytes, long firstTimestampMs, long lastTimestampMs, payload
+ * </pre>
+ * A block with rowCount 0 (the zero-filled tail of the mapping) marks the end of data, so
+ * files remain readable even if the recorder is never closed. Not thread-safe.
+ */
+public class SessionRecorder {
+
+    public static final int MAGIC = 0x524D5352; // "RMSR"
+    public static final short VERSION = 1;
+    public static final int BLOCK_HEADER_BYTES = 4 + 4 + 8 + 8;
+
+    private static final int DEFAULT_BLOCK_ROWS = 60;
+    private static final int MAP_CHUNK_BYTES = 1 << 20;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final int metricCount;
+    private final int blockRows;
+    private final long[] timestamps;
+    private final float[] values; // row-major staging: values[row * metricCount + metric]
+    private MappedByteBuffer mapped;
+    private long mappedStart;
+    private int rows;
+    private long rowsWritten;
+    private boolean closed;
+
+    public SessionRecorder(File output, String[] metricNames, String[] metricUnits) throws IOException {
+        this(output, metricNames, metricUnits, DEFAULT_BLOCK_ROWS);
+    }
+
+    public SessionRecorder(File output, String[] metricNames, String[] metricUnits, int blockRows) throws IOException {
+        this.metricCount = metricNames.length;
+        this.blockRows = Math.max(1, blockRows);
+        this.timestamps = new long[this.blockRows];
+        this.values = new float[this.blockRows * metricCount];
+        file = new RandomAccessFile(output, "rw");
+        file.setLength(0);
+        channel = file.getChannel();
+
+        int headerBytes = 4 + 2 + 2;
+        byte[][] encoded = new byte[metricCount * 2][];
+        for (int i = 0; i < metricCount; i++) {
+            encoded[i * 2] = metricNames[i].getBytes(StandardCharsets.UTF_8);
+            encoded[i * 2 + 1] = (metricUnits != null && metricUnits[i] != null ? metricUnits[i] : "")
+                    .getBytes(StandardCharsets.UTF_8);
+            headerBytes += 4 + encoded[i * 2].length + encoded[i * 2 + 1].length;
+        }
+        remap(0, Math.max(MAP_CHUNK_BYTES, headerBytes));
+        mapped.putInt(MAGIC);
+        mapped.putShort(VERSION);
+        mapped.putShort((short) metricCount);
+        for (byte[] b : encoded) {
+            mapped.putShort((short) b.length);
+            mapped.put(b);
+        }
+    }
+
+    public int getMetricCount() {
+        return metricCount;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten + rows;
+    }
+
+    /** Bytes of encoded data so far (excluding the row block still being staged). */
+    public long getBytesWritten() {
+        return mappedStart + mapped.position();
+    }
+
+    /**
+     * Stages one row; {@code rowValues} must hold {@link #getMetricCount()} values
+     * (NaN for metrics without a sample). The array is copied, not retained.
+     */
+    public void append(long timestampMs, float[] rowValues) throws IOException {
+        if (closed) throw new IOException("Recorder is closed");
+        timestamps[rows] = timestampMs;
+        System.arraycopy(rowValues, 0, values, rows * metricCount, metricCount);
+        rows++;
+        if (rows == blockRows) {
+            flushBlock();
+        }
+    }
+
+    /** Encodes any staged rows so they are visible to readers. */
+    public void flush() throws IOException {
+        if (rows > 0) flushBlock();
+    }
+
+    /** Flushes, syncs and trims the file to its encoded length. */
+    public void close() throws IOException {
+        if (closed) return;
+        try {
+            flush();
+            long end = getBytesWritten();
+            mapped.force();
+            mapped = null;
+            channel.truncate(end);
+        } finally {
+            closed = true;
+            file.close();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        // Worst case: 10 bytes per timestamp varint and 5 per value varint
+        int worstCase = BLOCK_HEADER_BYTES + rows * 10 + rows * metricCount * 5;
+        if (mapped.remaining() < worstCase) {
+            remap(mappedStart + mapped.position(), Math.max(MAP_CHUNK_BYTES, worstCase));
+        }
+        MappedByteBuffer out = mapped;
+        int headerPos = out.position();
+        out.position(headerPos + BLOCK_HEADER_BYTES);
+
+        // Timestamp column: first value lives in the block header, then delta-of-deltas
+        long prevTs = timestamps[0];
+        long prevDelta = 0;
+        for (int r = 1; r < rows; r++) {
+            long delta = timestamps[r] - prevTs;
+            writeVarLong(out, zigzag(delta - prevDelta));
+            prevDelta = delta;
+            prevTs = timestamps[r];
+        }
+        // Value columns: XOR against the previous value's bits in the same column
+        for (int m = 0; m < metricCount; m++) {
+            int prevBits = 0;
+            for (int r = 0; r < rows; r++) {
+                int bits = Float.floatToIntBits(values[r * metricCount + m]);
+                writeVarInt(out, bits ^ prevBits);
+                prevBits = bits;
+            }
+        }
+
+        int end = out.position();
+        out.putInt(headerPos, rows);
+        out.putInt(headerPos + 4, end - headerPos - BLOCK_HEADER_BYTES);
+        out.putLong(headerPos + 8, timestamps[0]);
+        out.putLong(headerPos + 16, timestamps[rows - 1]);
+        rowsWritten += rows;
+        rows = 0;
+    }
+
+    private void remap(long start, int size) throws IOException {
+        mappedStart = start;
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    static void writeVarLong(MappedByteBuffer out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) v);
+    }
+
+    static void writeVarInt(MappedByteBuffer out, int v) {
+        while ((v & ~0x7F) != 0) {
+            out.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) v);
+    }
+}
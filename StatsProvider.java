@@ -3,11 +3,10 @@ package com.example.resourcemapperapp;
 import android.app.ActivityManager;
 import android.bluetooth.BluetoothAdapter;
 import android.content.Context;
-import android.content.Intent;
-import android.content.IntentFilter;
 import android.content.pm.PackageManager;
-import android.net.TrafficStats;
 import android.provider.Settings;
+import android.system.Os;
+import android.system.OsConstants;
 import android.opengl.EGL14;
 import android.opengl.EGLConfig;
 import android.opengl.EGLContext;
@@ -30,17 +29,14 @@ import java.util.regex.Pattern;
 
 public class StatsProvider {
 
-    public static class NetSample {
-        public long rxBytes;
-        public long txBytes;
-    }
-
     public static class Snapshot {
         public Float cpuPercent; // null if unavailable (not shown in UI)
         public String memHuman;
         public String batteryHuman;
         public String storageHuman;
         public String networkHuman;
+        public PressureMonitor.Level memPressure;
+        public String diskIoHuman;
         public String deviceHuman;
         public String processorHuman;
         public String processorModel;
@@ -125,6 +121,12 @@ public class StatsProvider {
         public String maxSupportedVersion;
     }
 
+    public static class NetworkDetails {
+        public String source; // "/proc/net/dev" or "TrafficStats" when the file is not readable
+        public String total; // non-loopback receive and transmit rates
+        public String interfaces; // one block per active interface: rates, errors, drops, totals
+    }
+
     public static class StorageDetails {
         public String total;
         public String used;
@@ -132,6 +134,8 @@ public class StatsProvider {
         public String usedPercent;
         public String fsType;
         public String path;
+        public String device; // block device backing /data, e.g. "dm-5"
+        public String io; // live I/O load of that device (also in Snapshot.diskIoHuman)
     }
 
     public static class ProcessorDetails {
@@ -143,7 +147,10 @@ public class StatsProvider {
         public String microArch;
         public String processNm;
         public String coreCount;
+        public String perCore; // one line per core: frequency, busy %, iowait %, irq %
+        public String topProcesses; // busiest visible processes: name, CPU %, RSS
         public String thermalState;
+        public String thermalZones; // hottest zones and active cooling devices
         public String coprocessorModel;
         public String gpuType;
         public String gpuCoreCount;
@@ -157,36 +164,171 @@ public class StatsProvider {
     private final Context context;
     private long lastAppCpuTimeNs;
     private long lastAppCpuTimestampMs;
-    private NetSample lastNetSample;
-    private long lastNetTimestampMs;
     private String glRendererCache;
     // For tracking overall (system-wide) CPU usage between samples
     private long lastTotalCpuIdle;
     private long lastTotalCpuTotal;
     private boolean usingTotalCpu = false; // Track if we're successfully using overall CPU
+    // /proc/stat is kept open and re-read into a reusable buffer (no per-sample allocation)
+    private static final byte[] PROC_STAT_CPU_PREFIX = ProcFileReader.ascii("cpu ");
+    private final ProcFileReader procStatReader = new ProcFileReader("/proc/stat");
+    private final long[] cpuJiffies = new long[10];
+    private final CpuCoreSampler cpuCoreSampler = new CpuCoreSampler();
+    // Latest primitive readings, kept for the history store (NaN / negative when unknown)
+    private float lastTotalCpuPercent = Float.NaN;
+    private boolean coresSampled; // last sampleProcessor() read per-core stats
+    private boolean thermalSampled; // ... and at least one thermal zone
+    private long lastMemAvailableBytes = -1L;
+    private float lastNetRxBytesPerSec = Float.NaN;
+    private float lastNetTxBytesPerSec = Float.NaN;
+    // Battery values arrive by broadcast and on the monitor's own counter cadence
+    private final BatteryMonitor batteryMonitor;
+    // Reusable text slots for the per-tick overview strings
+    private final HumanFormatter.CachedText memText = new HumanFormatter.CachedText();
+    private final HumanFormatter.CachedText storageText = new HumanFormatter.CachedText();
+    private final HumanFormatter.CachedText batteryText = new HumanFormatter.CachedText();
+    private final HumanFormatter.CachedText networkText = new HumanFormatter.CachedText();
+    private final HumanFormatter.CachedText diskText = new HumanFormatter.CachedText();
+
+    // Each metric declares its volatility: static values are read once, slow ones on a longer period
+    private final MetricRegistry metrics = new MetricRegistry();
+    private final MetricRegistry.Metric<Float> cpuPercent;
+    private final MetricRegistry.Metric<String> memHuman;
+    private final MetricRegistry.Metric<String> batteryHuman;
+    private final MetricRegistry.Metric<String> storageHuman;
+    private final MetricRegistry.Metric<String> networkHuman;
+    private final MetricRegistry.Metric<String> deviceHuman;
+    private final MetricRegistry.Metric<String> processorModel;
+    private final MetricRegistry.Metric<String> processorHuman;
+    private final MetricRegistry.Metric<GpuInfo> gpuInfo;
+    private final MetricRegistry.Metric<String> displayHuman;
+    private final MetricRegistry.Metric<String> osHuman;
+    private final MetricRegistry.Metric<String> thermalStatus;
+    private final MetricRegistry.Metric<ProcessorDetails> processorStatic;
+    private final MetricRegistry.Metric<String> memoryType;
+    private final MetricRegistry.Metric<PressureMonitor.Level> memoryPressure;
+    private final MetricRegistry.Metric<String> diskIoHuman;
+    private final MemInfoParser memInfoParser = new MemInfoParser();
+    private final PressureMonitor pressureMonitor = new PressureMonitor(memInfoParser);
+    private final DiskStatsSampler diskStats = new DiskStatsSampler();
+    private final ThermalSampler thermalSampler = new ThermalSampler();
+    private final NetworkSampler networkSampler = new NetworkSampler();
+    private static final int TOP_PROCESSES = 5;
+    private final ProcessScanner processScanner = new ProcessScanner(TOP_PROCESSES, cpuCoreSampler.getCoreCount(),
+            sysconfOr(OsConstants._SC_PAGESIZE, 4096L), sysconfOr(OsConstants._SC_CLK_TCK, 100L));
 
     public StatsProvider(Context context) {
         this.context = context.getApplicationContext();
+        // Started and stopped by SamplingEngine, so nothing is registered while the app is idle
+        batteryMonitor = new BatteryMonitor(this.context, SamplingScheduler.samplerLooper());
+        cpuPercent = metrics.register("cpuPercent", MetricRegistry.Volatility.FAST, this::readCpuUsagePercent);
+        memHuman = metrics.register("memory", MetricRegistry.Volatility.FAST, this::readMemoryHuman);
+        networkHuman = metrics.register("network", MetricRegistry.Volatility.FAST, this::readNetworkHuman);
+        memoryPressure = metrics.register("pressure", MetricRegistry.Volatility.FAST,
+                () -> pressureMonitor.sample(System.currentTimeMillis()));
+        diskIoHuman = metrics.register("diskIo", MetricRegistry.Volatility.FAST, this::readDiskIoHuman);
+        // Only reads BatteryMonitor's cached fields, so it is cheap enough for every tick
+        batteryHuman = metrics.register("battery", MetricRegistry.Volatility.FAST, this::readBatteryHuman);
+        storageHuman = metrics.register("storage", MetricRegistry.Volatility.SLOW, 30_000L, this::readStorageHuman);
+        thermalStatus = metrics.register("thermal", MetricRegistry.Volatility.SLOW, 5_000L, this::getThermalStatusHuman);
+        // Device text embeds the thermal state, so it follows the thermal cadence
+        deviceHuman = metrics.register("device", MetricRegistry.Volatility.SLOW, 5_000L, this::readDeviceHuman);
+        processorModel = metrics.register("processorModel", MetricRegistry.Volatility.STATIC, this::getProcessorModelString);
+        processorHuman = metrics.register("processor", MetricRegistry.Volatility.STATIC, this::readProcessorHuman);
+        gpuInfo = metrics.register("gpu", MetricRegistry.Volatility.STATIC, this::readGpuInfo);
+        displayHuman = metrics.register("display", MetricRegistry.Volatility.STATIC, this::readDisplayHuman);
+        osHuman = metrics.register("os", MetricRegistry.Volatility.STATIC, this::readOsHuman);
+        processorStatic = metrics.register("processorStatic", MetricRegistry.Volatility.STATIC, this::readProcessorStaticDetails);
+        memoryType = metrics.register("memoryType", MetricRegistry.Volatility.STATIC, this::readMemoryType);
     }
 
     public Snapshot collectSnapshot() {
         Snapshot s = new Snapshot();
-        s.cpuPercent = readCpuUsagePercent();
-        s.memHuman = readMemoryHuman();
-        s.batteryHuman = readBatteryHuman();
-        s.storageHuman = readStorageHuman();
-        s.networkHuman = readNetworkHuman();
-        s.deviceHuman = readDeviceHuman();
-        s.processorModel = getProcessorModelString();
-        s.processorHuman = readProcessorHuman();
-        GpuInfo gpuInfo = readGpuInfo();
-        s.processorGpuType = gpuInfo.type;
-        s.processorGpuCoreCount = gpuInfo.coreCount;
-        s.displayHuman = readDisplayHuman();
-        s.osHuman = readOsHuman();
+        s.cpuPercent = cpuPercent.get();
+        s.memHuman = memHuman.get();
+        s.batteryHuman = batteryHuman.get();
+        s.storageHuman = storageHuman.get();
+        s.networkHuman = networkHuman.get();
+        s.memPressure = memoryPressure.get();
+        s.diskIoHuman = diskIoHuman.get();
+        s.deviceHuman = deviceHuman.get();
+        s.processorModel = processorModel.get();
+        s.processorHuman = processorHuman.get();
+        GpuInfo gpu = gpuInfo.get();
+        s.processorGpuType = gpu.type;
+        s.processorGpuCoreCount = gpu.coreCount;
+        s.displayHuman = displayHuman.get();
+        s.osHuman = osHuman.get();
         return s;
     }
 
+    public MetricRegistry getMetricRegistry() {
+        return metrics;
+    }
+
+    public CpuCoreSampler getCpuCoreSampler() {
+        return cpuCoreSampler;
+    }
+
+    public PressureMonitor getPressureMonitor() {
+        return pressureMonitor;
+    }
+
+    public ProcessScanner getProcessScanner() {
+        return processScanner;
+    }
+
+    public DiskStatsSampler getDiskStatsSampler() {
+        return diskStats;
+    }
+
+    public ThermalSampler getThermalSampler() {
+        return thermalSampler;
+    }
+
+    public NetworkSampler getNetworkSampler() {
+        return networkSampler;
+    }
+
+    /** System-wide CPU usage from the last /proc/stat sample, or NaN if unknown. */
+    public float getLastTotalCpuPercent() {
+        return lastTotalCpuPercent;
+    }
+
+    public long getLastMemAvailableBytes() {
+        return lastMemAvailableBytes;
+    }
+
+    public float getLastNetRxBytesPerSec() {
+        return lastNetRxBytesPerSec;
+    }
+
+    public float getLastNetTxBytesPerSec() {
+        return lastNetTxBytesPerSec;
+    }
+
+    public BatteryMonitor getBatteryMonitor() {
+        return batteryMonitor;
+    }
+
+    public int getLastBatteryVoltageMv() {
+        return batteryMonitor.getVoltageMv();
+    }
+
+    /** Instantaneous battery current in microamperes, or Long.MIN_VALUE if unsupported. */
+    public long getLastBatteryCurrentUa() {
+        return batteryMonitor.getCurrentUa();
+    }
+
+    public float getLastBatteryTemperatureC() {
+        return batteryMonitor.getTemperatureC();
+    }
+
+    /** Wall-clock time of the last battery value change, or -1 if never read. */
+    public long getLastBatterySampleMs() {
+        return batteryMonitor.getLastChangeMs();
+    }
+
     private Float readCpuUsagePercent() {
         // Calculate this app's CPU usage percentage
         // Uses Process.getElapsedCpuTime() which returns CPU time used by this process in milliseconds
@@ -244,11 +386,11 @@ public class StatsProvider {
      * The first call initializes the baseline and returns null; subsequent calls return a percentage.
      */
     private Float readTotalCpuUsagePercent() {
-        BufferedReader reader = null;
+        // Unknown unless this sample succeeds: every path that returns null, the catch included,
+        // must not leave the previous tick's figure published as current
+        lastTotalCpuPercent = Float.NaN;
         try {
-            reader = new BufferedReader(new FileReader("/proc/stat"));
-            String line = reader.readLine();
-            if (line == null || !line.startsWith("cpu ")) {
+            if (!procStatReader.read() || !procStatReader.startsWith(0, PROC_STAT_CPU_PREFIX)) {
                 // If we can't read /proc/stat, mark as not using and reset state
                 usingTotalCpu = false;
                 lastTotalCpuIdle = 0L;
@@ -256,24 +398,27 @@ public class StatsProvider {
                 return null;
             }
 
-            String[] toks = line.trim().split("\\s+");
-            if (toks.length < 5) {
+            // Parse the aggregate "cpu " line straight from the byte buffer into cpuJiffies
+            // Format: cpu user nice system idle iowait irq softirq steal ...
+            int n = procStatReader.parseLongs(PROC_STAT_CPU_PREFIX.length, cpuJiffies, 0, cpuJiffies.length);
+            if (n < 4) {
                 usingTotalCpu = false;
                 lastTotalCpuIdle = 0L;
                 lastTotalCpuTotal = 0L;
                 return null;
             }
+            for (int i = n; i < cpuJiffies.length; i++) {
+                cpuJiffies[i] = 0L;
+            }
 
-            // Parse CPU stats from /proc/stat
-            // Format: cpu user nice system idle iowait irq softirq steal ...
-            long user    = parseLongSafe(toks, 1);
-            long nice    = parseLongSafe(toks, 2);
-            long system  = parseLongSafe(toks, 3);
-            long idle    = parseLongSafe(toks, 4);
-            long iowait  = toks.length > 5 ? parseLongSafe(toks, 5) : 0L;
-            long irq     = toks.length > 6 ? parseLongSafe(toks, 6) : 0L;
-            long softirq = toks.length > 7 ? parseLongSafe(toks, 7) : 0L;
-            long steal   = toks.length > 8 ? parseLongSafe(toks, 8) : 0L;
+            long user    = cpuJiffies[0];
+            long nice    = cpuJiffies[1];
+            long system  = cpuJiffies[2];
+            long idle    = cpuJiffies[3];
+            long iowait  = cpuJiffies[4];
+            long irq     = cpuJiffies[5];
+            long softirq = cpuJiffies[6];
+            long steal   = cpuJiffies[7];
 
             // Calculate idle time (idle + iowait)
             // iowait is time waiting for I/O, which is also considered "idle" for CPU usage
@@ -358,6 +503,7 @@ public class StatsProvider {
             
             // Mark that we're successfully using overall CPU
             usingTotalCpu = true;
+            lastTotalCpuPercent = usage;
             return usage;
         } catch (Exception e) {
             // On error, only reset state if we're sure it won't work
@@ -369,12 +515,6 @@ public class StatsProvider {
             }
             // Return null but keep state - next call might work
             return null;
-        } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException ignored) {}
-            }
         }
     }
     
@@ -496,10 +636,8 @@ public class StatsProvider {
 
     public BatteryDetails collectBatteryDetails() {
         BatteryDetails d = new BatteryDetails();
-        IntentFilter ifilter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-        Intent batteryStatus = context.registerReceiver(null, ifilter);
         
-        if (batteryStatus == null) {
+        if (batteryMonitor.getLastChangeMs() < 0) {
             d.status = "-";
             d.levelWithCapacity = "-";
             d.voltage = "-";
@@ -513,54 +651,15 @@ public class StatsProvider {
         }
 
         // Status
-        int status = batteryStatus.getIntExtra(BatteryManager.EXTRA_STATUS, -1);
-        String statusStr;
-        switch (status) {
-            case BatteryManager.BATTERY_STATUS_CHARGING: statusStr = "Charging"; break;
-            case BatteryManager.BATTERY_STATUS_DISCHARGING: statusStr = "Discharging"; break;
-            case BatteryManager.BATTERY_STATUS_FULL: statusStr = "Full"; break;
-            case BatteryManager.BATTERY_STATUS_NOT_CHARGING: statusStr = "Not charging"; break;
-            default: statusStr = "Unknown"; break;
-        }
-        d.status = statusStr;
+        d.status = formatBatteryStatus(batteryMonitor.getStatus());
 
         // Level and capacity
-        int level = batteryStatus.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
-        int scale = batteryStatus.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
-        float pct = (level >= 0 && scale > 0) ? (level * 100f / scale) : -1f;
+        float pct = batteryMonitor.getLevelPercent();
         String levelStr = pct >= 0 ? String.format("%.0f%%", pct) : "-";
         
-        // Battery capacity (mAh) - try to get from BatteryManager if available
+        // Battery capacity (mAh) from the charge counter (microampere-hours) when reported
         String capacityStr = "-";
-        long remainingChargeMicroAh = -1;
-        try {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                BatteryManager bm = (BatteryManager) context.getSystemService(Context.BATTERY_SERVICE);
-                if (bm != null) {
-                    // Get remaining charge counter in microampere-hours
-                    remainingChargeMicroAh = bm.getLongProperty(BatteryManager.BATTERY_PROPERTY_CHARGE_COUNTER);
-                    // Get energy counter in nanowatt-hours (API 21+)
-                    try {
-                        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP_MR1) {
-                            long energyCounter = bm.getLongProperty(BatteryManager.BATTERY_PROPERTY_ENERGY_COUNTER);
-                            if (energyCounter > 0) {
-                                // Energy counter is in nanowatt-hours, voltage is in millivolts
-                                int voltage = batteryStatus.getIntExtra(BatteryManager.EXTRA_VOLTAGE, -1);
-                                if (voltage > 0) {
-                                    // energy (nWh) / voltage (mV) = charge (nAh) = charge / 1000000 mAh
-                                    // But we need current capacity, not total
-                                    // This is complex, so we'll just show the remaining charge if available
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        // Ignore
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // Ignored
-        }
+        long remainingChargeMicroAh = batteryMonitor.getChargeCounterUah();
         
         // Calculate remaining capacity from charge counter if available
         if (remainingChargeMicroAh > 0) {
@@ -579,20 +678,19 @@ public class StatsProvider {
         d.capacityMah = capacityStr;
 
         // Voltage
-        int voltage = batteryStatus.getIntExtra(BatteryManager.EXTRA_VOLTAGE, -1);
+        int voltage = batteryMonitor.getVoltageMv();
         d.voltage = voltage > 0 ? String.format("%.0f V", voltage / 1000f) : "-";
 
         // Technology
-        String technology = batteryStatus.getStringExtra(BatteryManager.EXTRA_TECHNOLOGY);
+        String technology = batteryMonitor.getTechnology();
         d.technology = technology != null && !technology.isEmpty() ? technology : "-";
 
         // Thermal state
         d.thermalState = getThermalStatusHuman();
 
         // Health
-        int health = batteryStatus.getIntExtra(BatteryManager.EXTRA_HEALTH, -1);
         String healthStr;
-        switch (health) {
+        switch (batteryMonitor.getHealth()) {
             case BatteryManager.BATTERY_HEALTH_COLD: healthStr = "Cold"; break;
             case BatteryManager.BATTERY_HEALTH_DEAD: healthStr = "Dead"; break;
             case BatteryManager.BATTERY_HEALTH_GOOD: healthStr = "Good"; break;
@@ -735,8 +833,66 @@ public class StatsProvider {
         d.free = humanBytes(availMem);
         d.designCapacity = humanBytes(totalMem); // Design capacity is same as total on Android
         
+        // Memory type never changes; probed once
+        d.memoryType = memoryType.get();
+        
+        // Memory pressure: PSI stall time (or vmstat fault/refault rates), not "used" percent,
+        // since a full page cache is normal on Android. Only the tick samples the monitor, so
+        // its rate baselines stay one tick apart; until then the level is UNKNOWN and shows "-"
+        d.pressure = formatPressure(pressureMonitor.getMemoryLevel(), mi.lowMemory);
+        
+        // Detailed memory stats: /proc/meminfo and /proc/vmstat in one table-driven pass each
+        long activeKb = 0;
+        long inactiveKb = 0;
+        long wiredKb = 0;
+        long compressedKb = 0;
+        long pageIns = 0;
+        long pageOuts = 0;
+        long pageFaults = 0;
+        if (memInfoParser.sample()) {
+            activeKb = Math.max(0, memInfoParser.get(MemInfoParser.ACTIVE));
+            inactiveKb = Math.max(0, memInfoParser.get(MemInfoParser.INACTIVE));
+            wiredKb = Math.max(0, memInfoParser.get(MemInfoParser.BUFFERS))
+                    + Math.max(0, memInfoParser.get(MemInfoParser.CACHED));
+            compressedKb = Math.max(0, memInfoParser.get(MemInfoParser.COMPRESSED));
+            pageIns = Math.max(0, memInfoParser.get(MemInfoParser.PGPGIN)) * 1024; // Convert pages to KB
+            pageOuts = Math.max(0, memInfoParser.get(MemInfoParser.PGPGOUT)) * 1024; // Convert pages to KB
+            pageFaults = Math.max(0, memInfoParser.get(MemInfoParser.PGFAULT));
+        }
+        
+        // Set memory stats
+        d.active = activeKb > 0 ? humanBytes(activeKb * 1024) : "-";
+        d.inactive = inactiveKb > 0 ? humanBytes(inactiveKb * 1024) : "-";
+        d.wired = wiredKb > 0 ? humanBytes(wiredKb * 1024) : "-";
+        d.compressed = compressedKb > 0 ? humanBytes(compressedKb * 1024) : "-";
+        d.pageIns = pageIns > 0 ? humanBytes(pageIns * 1024) : "-";
+        d.pageOuts = pageOuts > 0 ? humanBytes(pageOuts * 1024) : "-";
+        d.pageFaults = pageFaults > 0 ? String.valueOf(pageFaults) : "-";
+        
+        return d;
+    }
+
+    private String formatPressure(PressureMonitor.Level level, boolean lowMemory) {
+        if (level == PressureMonitor.Level.UNKNOWN) {
+            return lowMemory ? "High" : "-";
+        }
+        String text = level == PressureMonitor.Level.HIGH || lowMemory ? "High"
+                : level == PressureMonitor.Level.MEDIUM ? "Medium" : "Low";
+        float stall = pressureMonitor.getStallUsPerSec(PressureMonitor.MEMORY, PressureMonitor.SOME);
+        if (!Float.isNaN(stall)) {
+            return String.format(Locale.US, "%s (%.1f ms/s stalled)", text, stall / 1000f);
+        }
+        float refaults = pressureMonitor.getRefaultsPerSec();
+        if (!Float.isNaN(refaults)) {
+            return String.format(Locale.US, "%s (%.0f refaults/s)", text, refaults);
+        }
+        return text;
+    }
+
+    /** DDR type probe (sysfs, then Build heuristics); static, so cached by the registry. */
+    private String readMemoryType() {
         // Memory type - try to read from various sysfs paths
-        d.memoryType = "-";
+        String type = "-";
         BufferedReader memTypeReader = null;
         try {
             // Try multiple paths for memory type detection
@@ -744,7 +900,6 @@ public class StatsProvider {
                 "/sys/class/ddr_info/type",
                 "/sys/class/ddr_info/ddr_type",
                 "/sys/class/memory/memory0/uevent",
-                "/proc/meminfo",
                 "/sys/devices/system/memory/memory0/uevent"
             };
             
@@ -760,25 +915,25 @@ public class StatsProvider {
                         String lower = line.toLowerCase();
                         // Check for DDR types - be more specific
                         if (lower.contains("lpddr5") || lower.contains("ddr5")) {
-                            d.memoryType = "LPDDR5";
+                            type = "LPDDR5";
                             break;
                         } else if (lower.contains("lpddr4") || lower.contains("ddr4")) {
-                            d.memoryType = "LPDDR4";
+                            type = "LPDDR4";
                             break;
                         } else if (lower.contains("lpddr3") || lower.contains("ddr3")) {
-                            d.memoryType = "LPDDR3";
+                            type = "LPDDR3";
                             break;
                         } else if (lower.contains("lpddr2") || lower.contains("ddr2")) {
-                            d.memoryType = "LPDDR2";
+                            type = "LPDDR2";
                             break;
                         } else if (lower.contains("ddr") || lower.contains("dram")) {
                             // Generic DDR if no specific version found
-                            if (d.memoryType.equals("-")) {
-                                d.memoryType = "DDR";
+                            if (type.equals("-")) {
+                                type = "DDR";
                             }
                         }
                     }
-                    if (!d.memoryType.equals("-")) {
+                    if (!type.equals("-")) {
                         break; // Found memory type, stop searching
                     }
                 } catch (IOException e) {
@@ -788,7 +943,7 @@ public class StatsProvider {
             }
             
             // If still not found, try to infer from device properties and Build info
-            if (d.memoryType.equals("-")) {
+            if (type.equals("-")) {
                 // Try Build properties as fallback
                 String hardware = safeString(Build.HARDWARE);
                 String model = safeString(Build.MODEL);
@@ -807,16 +962,16 @@ public class StatsProvider {
                         combined.contains("mediatek") || combined.contains("dimensity") ||
                         combined.contains("kirin") || combined.contains("tensor")) {
                         // Most modern devices (2020+) use LPDDR4 or LPDDR5
-                        d.memoryType = "LPDDR4/LPDDR5";
+                        type = "LPDDR4/LPDDR5";
                     } else if (combined.contains("pixel") || combined.contains("galaxy") || 
                                combined.contains("oneplus") || combined.contains("xiaomi") ||
                                combined.contains("oppo") || combined.contains("vivo") ||
                                combined.contains("realme")) {
                         // Popular modern brands typically use LPDDR4/LPDDR5
-                        d.memoryType = "LPDDR4/LPDDR5";
+                        type = "LPDDR4/LPDDR5";
                     } else {
                         // Generic fallback
-                        d.memoryType = "DDR";
+                        type = "DDR";
                     }
                 }
             }
@@ -825,7 +980,7 @@ public class StatsProvider {
             try {
                 String hardware = safeString(Build.HARDWARE);
                 if (hardware != null && !hardware.isEmpty()) {
-                    d.memoryType = "DDR";
+                    type = "DDR";
                 }
             } catch (Exception e2) {
                 // Leave as "-"
@@ -835,80 +990,7 @@ public class StatsProvider {
                 try { memTypeReader.close(); } catch (IOException ignored) {}
             }
         }
-        
-        // Memory pressure
-        if (mi.lowMemory) {
-            d.pressure = "High";
-        } else {
-            float pressurePct = (totalMem - availMem) * 100f / (totalMem > 0 ? totalMem : 1);
-            if (pressurePct < 50) {
-                d.pressure = "Low";
-            } else if (pressurePct < 80) {
-                d.pressure = "Medium";
-            } else {
-                d.pressure = "High";
-            }
-        }
-        
-        // Try to read detailed memory stats from /proc/meminfo
-        BufferedReader reader = null;
-        long activeKb = 0;
-        long inactiveKb = 0;
-        long wiredKb = 0;
-        long compressedKb = 0;
-        long pageIns = 0;
-        long pageOuts = 0;
-        long pageFaults = 0;
-        
-        try {
-            reader = new BufferedReader(new FileReader("/proc/meminfo"));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.startsWith("Active:")) {
-                    activeKb = parseMeminfoValue(line);
-                } else if (line.startsWith("Inactive:")) {
-                    inactiveKb = parseMeminfoValue(line);
-                } else if (line.startsWith("Buffers:")) {
-                    wiredKb += parseMeminfoValue(line);
-                } else if (line.startsWith("Cached:")) {
-                    wiredKb += parseMeminfoValue(line);
-                } else if (line.startsWith("Compressed:")) {
-                    compressedKb = parseMeminfoValue(line);
-                }
-            }
-            reader.close();
-            
-            // Try to read vmstat for page stats
-            reader = new BufferedReader(new FileReader("/proc/vmstat"));
-            while ((line = reader.readLine()) != null) {
-                if (line.startsWith("pgpgin ")) {
-                    pageIns = parseLongSafe(line.split("\\s+"), 1) * 1024; // Convert pages to KB
-                } else if (line.startsWith("pgpgout ")) {
-                    pageOuts = parseLongSafe(line.split("\\s+"), 1) * 1024; // Convert pages to KB
-                } else if (line.startsWith("pgfault ")) {
-                    pageFaults = parseLongSafe(line.split("\\s+"), 1);
-                }
-            }
-        } catch (IOException e) {
-            // /proc/meminfo or /proc/vmstat may not be accessible or may not exist
-        } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException ignored) {}
-            }
-        }
-        
-        // Set memory stats
-        d.active = activeKb > 0 ? humanBytes(activeKb * 1024) : "-";
-        d.inactive = inactiveKb > 0 ? humanBytes(inactiveKb * 1024) : "-";
-        d.wired = wiredKb > 0 ? humanBytes(wiredKb * 1024) : "-";
-        d.compressed = compressedKb > 0 ? humanBytes(compressedKb * 1024) : "-";
-        d.pageIns = pageIns > 0 ? humanBytes(pageIns * 1024) : "-";
-        d.pageOuts = pageOuts > 0 ? humanBytes(pageOuts * 1024) : "-";
-        d.pageFaults = pageFaults > 0 ? String.valueOf(pageFaults) : "-";
-        
-        return d;
+        return type;
     }
 
     public OsDetails collectOsDetails() {
@@ -1088,56 +1170,93 @@ public class StatsProvider {
         d.free = humanBytes(avail);
         d.usedPercent = String.format("%.1f%%", usedPct);
         
-        // File system type
+        // File system type: exact /data entry from mountinfo, else the first /proc/mounts match
         d.fsType = "ext4"; // Default on most Android devices
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader("/proc/mounts"));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.contains("/data")) {
-                    String[] parts = line.split("\\s+");
-                    if (parts.length >= 3) {
-                        d.fsType = parts[2]; // Third field is filesystem type
-                        break;
+        String mountFsType = diskStats.getFsType();
+        if (mountFsType != null) {
+            d.fsType = mountFsType;
+        } else {
+            try {
+                BufferedReader reader = new BufferedReader(new FileReader("/proc/mounts"));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.contains("/data")) {
+                        String[] parts = line.split("\\s+");
+                        if (parts.length >= 3) {
+                            d.fsType = parts[2]; // Third field is filesystem type
+                            break;
+                        }
                     }
                 }
+                reader.close();
+            } catch (IOException e) {
+                // Keep default value
             }
-            reader.close();
-        } catch (IOException e) {
-            // Keep default value
         }
         
         // Path
         d.path = Environment.getDataDirectory().getAbsolutePath();
         
+        // Backing block device and its load as of the last tick; collecting again here would
+        // measure rates over the few ms since that tick and shift the next tick's baseline
+        d.device = diskStats.getDeviceName();
+        String io = diskIoHuman.peek();
+        d.io = io != null ? io : "-";
+        
+        return d;
+    }
+
+    /**
+     * Formats the network sampler's state from the last tick. Nothing here samples: another
+     * /proc/net/dev read a few ms after the tick would turn the rates into noise and shorten
+     * the interval behind the next tick's overview and history values.
+     */
+    public NetworkDetails collectNetworkDetails() {
+        NetworkDetails d = new NetworkDetails();
+        d.source = networkSampler.isUsingTrafficStats() ? "TrafficStats" : "/proc/net/dev";
+        String total = networkHuman.peek();
+        d.total = total != null ? total : "-";
+        d.interfaces = formatNetworkInterfaces(networkSampler);
         return d;
     }
 
+    /**
+     * Per-tick processor sampling behind the history: system CPU from /proc/stat, per-core load
+     * and frequency, and thermal zones, all into primitive fields. The processor screen's text
+     * is built from these samples by {@link #collectProcessorDetails()} only when requested.
+     */
+    public void sampleProcessor() {
+        readTotalCpuUsagePercent();
+        coresSampled = cpuCoreSampler.sample();
+        thermalSampled = thermalSampler.sample();
+    }
+
+    /**
+     * Formats the latest {@link #sampleProcessor()} results and scans processes. Called on
+     * request while the processor screen is visible, not on every tick.
+     */
     public ProcessorDetails collectProcessorDetails() {
         ProcessorDetails d = new ProcessorDetails();
         
-        // Processor model
-        String socModel = getFieldIfAvailable("SOC_MODEL");
-        String socManufacturer = getFieldIfAvailable("SOC_MANUFACTURER");
-        String hardware = safeString(Build.HARDWARE);
-        
-        if (socManufacturer != null && socModel != null) {
-            d.model = socManufacturer + " " + socModel;
-        } else if (socModel != null) {
-            d.model = socModel;
-        } else if (hardware != null) {
-            d.model = hardware;
-        } else {
-            d.model = "-";
-        }
+        // Static processor facts (model, /proc/cpuinfo, GPU) come from the registry cache
+        ProcessorDetails fixed = processorStatic.get();
+        d.model = fixed.model;
+        d.designFreq = fixed.designFreq;
+        d.instructionSet = fixed.instructionSet;
+        d.microArch = fixed.microArch;
+        d.processNm = fixed.processNm;
+        d.coreCount = fixed.coreCount;
+        d.coprocessorModel = fixed.coprocessorModel;
+        d.gpuType = fixed.gpuType;
+        d.gpuCoreCount = fixed.gpuCoreCount;
         
         // CPU usage percent - overall (system-wide) if available
-        // This uses /proc/stat via readTotalCpuUsagePercent().
-        // It may return null for the very first sample (needs 2 samples).
-        Float cpuUsage = readTotalCpuUsagePercent();
-        // Fallback to this app's CPU usage if overall is unavailable
+        // This uses /proc/stat via readTotalCpuUsagePercent() on the tick.
+        // It is NaN until the second tick (needs 2 samples).
+        Float cpuUsage = Float.isNaN(lastTotalCpuPercent) ? null : lastTotalCpuPercent;
+        // Fallback to this app's CPU usage from the tick if overall is unavailable
         if (cpuUsage == null) {
-            cpuUsage = readCpuUsagePercent();
+            cpuUsage = cpuPercent.peek();
         }
         
         // Format the result - needs 2 samples, so first call may return null
@@ -1150,18 +1269,47 @@ public class StatsProvider {
             d.usagePercent = "-";
         }
         
-        // Current frequency
+        // Current frequency (core 0) plus per-core busy/iowait/irq and frequency in one pass
         d.currentFreq = "-";
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader("/sys/devices/system/cpu/cpu0/cpufreq/scaling_cur_freq"));
-            String freqLine = reader.readLine();
-            reader.close();
-            if (freqLine != null) {
-                long freqHz = Long.parseLong(freqLine.trim());
-                d.currentFreq = String.format("%.2f GHz", freqHz / 1000000.0);
+        d.perCore = "-";
+        if (coresSampled) {
+            long freqKhz = cpuCoreSampler.getCurFreqKhz(0);
+            if (freqKhz > 0) {
+                d.currentFreq = String.format("%.2f GHz", freqKhz / 1000000.0);
             }
-        } catch (IOException | NumberFormatException e) {
-            // Not available
+            d.perCore = formatPerCore(cpuCoreSampler);
+        }
+        
+        // Who is burning the CPU: per-process deltas since the previous request
+        d.topProcesses = "-";
+        if (processScanner.scan(System.currentTimeMillis()) > 0) {
+            d.topProcesses = formatTopProcesses(processScanner);
+        }
+        
+        // Thermal state, plus the zones behind it so frequency drops can be tied to a sensor
+        d.thermalState = thermalStatus.get();
+        d.thermalZones = thermalSampled ? formatThermalZones(thermalSampler) : "-";
+        
+        return d;
+    }
+
+    /** Model, frequencies, ABI, microarchitecture and GPU: read once and cached by the registry. */
+    private ProcessorDetails readProcessorStaticDetails() {
+        ProcessorDetails d = new ProcessorDetails();
+        
+        // Processor model
+        String socModel = getFieldIfAvailable("SOC_MODEL");
+        String socManufacturer = getFieldIfAvailable("SOC_MANUFACTURER");
+        String hardware = safeString(Build.HARDWARE);
+        
+        if (socManufacturer != null && socModel != null) {
+            d.model = socManufacturer + " " + socModel;
+        } else if (socModel != null) {
+            d.model = socModel;
+        } else if (hardware != null) {
+            d.model = hardware;
+        } else {
+            d.model = "-";
         }
         
         // Design/Max frequency
@@ -1254,13 +1402,11 @@ public class StatsProvider {
         int coreCount = Runtime.getRuntime().availableProcessors();
         d.coreCount = String.valueOf(coreCount);
         
-        // Thermal state
-        d.thermalState = getThermalStatusHuman();
         
         // Coprocessor model - typically GPU or DSP
         d.coprocessorModel = "-";
         
-        GpuInfo gpuInfo = readGpuInfo();
+        GpuInfo gpuInfo = this.gpuInfo.get();
         d.gpuType = gpuInfo.type != null ? gpuInfo.type : "-";
         d.gpuCoreCount = gpuInfo.coreCount != null ? gpuInfo.coreCount : "-";
 
@@ -1278,18 +1424,147 @@ public class StatsProvider {
         return d;
     }
     
-    private long parseMeminfoValue(String line) {
+    private static String formatTopProcesses(ProcessScanner scanner) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < scanner.getTopCpuCount(); i++) {
+            ProcessScanner.ProcessEntry e = scanner.getTopCpu(i);
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(e.name).append("  ");
+            HumanFormatter.appendPercent(sb, e.cpuPercent, 1);
+            if (e.rssBytes >= 0) {
+                sb.append("  ");
+                HumanFormatter.appendBytes(sb, e.rssBytes);
+            }
+        }
+        return sb.length() == 0 ? "-" : sb.toString();
+    }
+
+    private static final int THERMAL_ZONES_SHOWN = 3;
+
+    /** Hottest zones, then each cooling device that is currently throttling (state > 0). */
+    private static String formatThermalZones(ThermalSampler sampler) {
+        StringBuilder sb = new StringBuilder();
+        float ceiling = Float.POSITIVE_INFINITY;
+        for (int shown = 0; shown < THERMAL_ZONES_SHOWN; shown++) {
+            // Next hottest zone below the previous one; ties collapse, which is fine for a summary
+            int next = -1;
+            for (int i = 0; i < sampler.getZoneCount(); i++) {
+                float t = sampler.getTempC(i);
+                if (Float.isNaN(t) || t >= ceiling) continue;
+                if (next < 0 || t > sampler.getTempC(next)) next = i;
+            }
+            if (next < 0) break;
+            ceiling = sampler.getTempC(next);
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(sampler.getZoneType(next)).append("  ");
+            HumanFormatter.appendFixed(sb, ceiling, 1).append(" C");
+        }
+        for (int i = 0; i < sampler.getCoolingDeviceCount(); i++) {
+            long state = sampler.getCoolingState(i);
+            if (state <= 0) continue;
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(sampler.getCoolingType(i)).append("  ").append(state);
+            if (sampler.getCoolingMaxState(i) > 0) sb.append('/').append(sampler.getCoolingMaxState(i));
+        }
+        return sb.length() == 0 ? "-" : sb.toString();
+    }
+
+    /**
+     * One block per interface that is up and has carried traffic: receive and transmit rates
+     * (bytes, packets), error and drop rates when reported, and bytes since the interface came up.
+     */
+    private static String formatNetworkInterfaces(NetworkSampler sampler) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < sampler.getInterfaceCount(); i++) {
+            // Skip absent interfaces and the idle dummy/tunnel ones every device lists
+            if (!sampler.isPresent(i)) continue;
+            long rxTotal = sampler.getCounter(i, NetworkSampler.RX_BYTES);
+            long txTotal = sampler.getCounter(i, NetworkSampler.TX_BYTES);
+            if (rxTotal <= 0 && txTotal <= 0) continue;
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(sampler.getInterfaceName(i));
+            if (sampler.isLoopback(i)) sb.append(" (not in total)");
+            sb.append("\n  rx ");
+            appendRates(sb, sampler, i, NetworkSampler.RX_BYTES, NetworkSampler.RX_PACKETS);
+            sb.append("  tx ");
+            appendRates(sb, sampler, i, NetworkSampler.TX_BYTES, NetworkSampler.TX_PACKETS);
+            if (sampler.getCounter(i, NetworkSampler.RX_ERRORS) >= 0) {
+                sb.append("\n  err ");
+                appendRatePair(sb, sampler, i, NetworkSampler.RX_ERRORS, NetworkSampler.TX_ERRORS);
+                sb.append("  drop ");
+                appendRatePair(sb, sampler, i, NetworkSampler.RX_DROPS, NetworkSampler.TX_DROPS);
+                sb.append(" /s rx/tx");
+            }
+            sb.append("\n  since up ");
+            HumanFormatter.appendBytes(sb, Math.max(0, rxTotal)).append(" / ");
+            HumanFormatter.appendBytes(sb, Math.max(0, txTotal));
+        }
+        return sb.length() == 0 ? "-" : sb.toString();
+    }
+
+    private static void appendRates(StringBuilder sb, NetworkSampler sampler, int iface, int bytes, int packets) {
+        float byteRate = sampler.getRate(iface, bytes);
+        if (Float.isNaN(byteRate)) {
+            sb.append('-');
+            return;
+        }
+        HumanFormatter.appendBytesPerSec(sb, (long) byteRate, 1000L);
+        float packetRate = sampler.getRate(iface, packets);
+        if (!Float.isNaN(packetRate)) {
+            sb.append(' ');
+            HumanFormatter.appendFixed(sb, packetRate, 0).append(" pkt/s");
+        }
+    }
+
+    private static void appendRatePair(StringBuilder sb, NetworkSampler sampler, int iface, int rx, int tx) {
+        appendRate(sb, sampler.getRate(iface, rx));
+        sb.append('/');
+        appendRate(sb, sampler.getRate(iface, tx));
+    }
+
+    private static void appendRate(StringBuilder sb, float rate) {
+        if (Float.isNaN(rate)) {
+            sb.append('-');
+        } else {
+            HumanFormatter.appendFixed(sb, rate, 1);
+        }
+    }
+
+    private static long sysconfOr(int name, long fallback) {
         try {
-            String[] parts = line.trim().split("\\s+");
-            if (parts.length >= 2) {
-                return Long.parseLong(parts[1]);
+            long value = Os.sysconf(name);
+            return value > 0 ? value : fallback;
+        } catch (Throwable t) {
+            // sysconf unavailable (e.g. host JVM); use the Linux defaults
+            return fallback;
+        }
+    }
+
+    private static String formatPerCore(CpuCoreSampler sampler) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < sampler.getCoreCount(); i++) {
+            if (sb.length() > 0) sb.append('\n');
+            sb.append("cpu").append(i).append("  ");
+            long freqKhz = sampler.getCurFreqKhz(i);
+            if (!sampler.isOnline(i)) {
+                sb.append("offline");
+                continue;
+            }
+            if (freqKhz > 0) {
+                HumanFormatter.appendFixed(sb, freqKhz / 1000000.0, 2).append(" GHz");
+            } else {
+                sb.append('-');
+            }
+            float busy = sampler.getBusyPercent(i);
+            if (busy >= 0f) {
+                HumanFormatter.appendPercent(sb.append("  "), busy, 0).append(" busy  ");
+                HumanFormatter.appendPercent(sb, sampler.getIowaitPercent(i), 0).append(" io  ");
+                HumanFormatter.appendPercent(sb, sampler.getIrqPercent(i), 0).append(" irq");
             }
-        } catch (Exception e) {
-            // Ignored
         }
-        return 0;
+        return sb.length() == 0 ? "-" : sb.toString();
     }
-    
+
     private int gcd(int a, int b) {
         while (b != 0) {
             int temp = b;
@@ -1386,29 +1661,42 @@ public class StatsProvider {
         am.getMemoryInfo(mi);
         long total = mi.totalMem;
         long avail = mi.availMem;
+        lastMemAvailableBytes = avail;
         long used = Math.max(0, total - avail);
         float usedPct = (total > 0) ? (used * 100f / total) : 0f;
-        return humanBytes(used) + " / " + humanBytes(total) + String.format(" (%.0f%%)", usedPct);
-        
+        return formatUsage(memText, used, total, usedPct);
+    }
+
+    /** "used / total (pct%)" into a reusable slot; returns the previous String if unchanged. */
+    private static String formatUsage(HumanFormatter.CachedText slot, long used, long total, float usedPct) {
+        StringBuilder sb = slot.begin();
+        HumanFormatter.appendBytes(sb, used).append(" / ");
+        HumanFormatter.appendBytes(sb, total).append(" (");
+        HumanFormatter.appendPercent(sb, usedPct, 0).append(')');
+        return slot.commit();
     }
 
     private String readBatteryHuman() {
-        IntentFilter ifilter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-        Intent batteryStatus = context.registerReceiver(null, ifilter);
-        if (batteryStatus == null) return "-";
-        int level = batteryStatus.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
-        int scale = batteryStatus.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
-        int status = batteryStatus.getIntExtra(BatteryManager.EXTRA_STATUS, -1);
-        float pct = (level >= 0 && scale > 0) ? (level * 100f / scale) : -1f;
-        String statusStr;
+        if (batteryMonitor.getLastChangeMs() < 0) return "-";
+        float pct = batteryMonitor.getLevelPercent();
+        StringBuilder sb = batteryText.begin();
+        if (pct >= 0) {
+            HumanFormatter.appendPercent(sb, pct, 0);
+        } else {
+            sb.append('-');
+        }
+        sb.append(" (").append(formatBatteryStatus(batteryMonitor.getStatus())).append(')');
+        return batteryText.commit();
+    }
+
+    private static String formatBatteryStatus(int status) {
         switch (status) {
-            case BatteryManager.BATTERY_STATUS_CHARGING: statusStr = "Charging"; break;
-            case BatteryManager.BATTERY_STATUS_DISCHARGING: statusStr = "Discharging"; break;
-            case BatteryManager.BATTERY_STATUS_FULL: statusStr = "Full"; break;
-            case BatteryManager.BATTERY_STATUS_NOT_CHARGING: statusStr = "Not charging"; break;
-            default: statusStr = "Unknown"; break;
+            case BatteryManager.BATTERY_STATUS_CHARGING: return "Charging";
+            case BatteryManager.BATTERY_STATUS_DISCHARGING: return "Discharging";
+            case BatteryManager.BATTERY_STATUS_FULL: return "Full";
+            case BatteryManager.BATTERY_STATUS_NOT_CHARGING: return "Not charging";
+            default: return "Unknown";
         }
-        return (pct >= 0 ? String.format("%.0f%%", pct) : "-") + " (" + statusStr + ")";
     }
 
     private String readStorageHuman() {
@@ -1427,27 +1715,37 @@ public class StatsProvider {
         long avail = availableBlocks * blockSize;
         long used = Math.max(0, total - avail);
         float usedPct = (total > 0) ? (used * 100f / total) : 0f;
-        return humanBytes(used) + " / " + humanBytes(total) + String.format(" (%.0f%%)", usedPct);
+        return formatUsage(storageText, used, total, usedPct);
     }
 
+    /** Non-loopback receive and transmit rates; per-interface figures stay in the sampler. */
     private String readNetworkHuman() {
-        long now = System.currentTimeMillis();
-        NetSample nowSample = new NetSample();
-        nowSample.rxBytes = TrafficStats.getTotalRxBytes();
-        nowSample.txBytes = TrafficStats.getTotalTxBytes();
-        if (lastNetSample == null) {
-            lastNetSample = nowSample;
-            lastNetTimestampMs = now;
+        networkSampler.sample(System.currentTimeMillis());
+        lastNetRxBytesPerSec = networkSampler.getTotalRxBytesPerSec();
+        lastNetTxBytesPerSec = networkSampler.getTotalTxBytesPerSec();
+        if (Float.isNaN(lastNetRxBytesPerSec)) return "-";
+        StringBuilder sb = networkText.begin().append("↓ ");
+        HumanFormatter.appendBytesPerSec(sb, (long) lastNetRxBytesPerSec, 1000L).append("  ↑ ");
+        HumanFormatter.appendBytesPerSec(sb, (long) lastNetTxBytesPerSec, 1000L);
+        return networkText.commit();
+    }
+
+    /** Read/write throughput and IOPS, then latency, queue depth and utilization of /data's device. */
+    private String readDiskIoHuman() {
+        if (!diskStats.sample(System.currentTimeMillis()) || Float.isNaN(diskStats.getReadIops())) {
             return "-";
         }
-        long dt = Math.max(1, now - lastNetTimestampMs);
-        long rxDelta = Math.max(0, nowSample.rxBytes - lastNetSample.rxBytes);
-        long txDelta = Math.max(0, nowSample.txBytes - lastNetSample.txBytes);
-        lastNetSample = nowSample;
-        lastNetTimestampMs = now;
-        String down = humanBytesPerSec(rxDelta, dt);
-        String up = humanBytesPerSec(txDelta, dt);
-        return "↓ " + down + "  ↑ " + up;
+        StringBuilder sb = diskText.begin().append("R ");
+        HumanFormatter.appendBytesPerSec(sb, (long) diskStats.getReadBytesPerSec(), 1000L).append(' ');
+        HumanFormatter.appendFixed(sb, diskStats.getReadIops(), 0).append(" IOPS  W ");
+        HumanFormatter.appendBytesPerSec(sb, (long) diskStats.getWriteBytesPerSec(), 1000L).append(' ');
+        HumanFormatter.appendFixed(sb, diskStats.getWriteIops(), 0).append(" IOPS\n");
+        HumanFormatter.appendFixed(sb, diskStats.getReadLatencyMs(), 1).append('/');
+        HumanFormatter.appendFixed(sb, diskStats.getWriteLatencyMs(), 1).append(" ms r/w  queue ");
+        HumanFormatter.appendFixed(sb, diskStats.getQueueDepth(), 1).append("  in flight ")
+                .append(diskStats.getInFlight()).append("  ");
+        HumanFormatter.appendPercent(sb, diskStats.getUtilizationPercent(), 0).append(" busy");
+        return diskText.commit();
     }
 
     private static long parseLongSafe(String[] toks, int idx) {
@@ -1459,27 +1757,7 @@ public class StatsProvider {
     }
 
     private static String humanBytes(long bytes) {
-        final String[] units = new String[]{"B", "KB", "MB", "GB", "TB"};
-        double b = (double) bytes;
-        int u = 0;
-        while (b >= 1024 && u < units.length - 1) {
-            b /= 1024.0;
-            u++;
-        }
-        if (u == 0) return ((long) b) + " " + units[u];
-        return String.format("%.1f %s", b, units[u]);
-    }
-
-    private static String humanBytesPerSec(long bytesDelta, long millisDelta) {
-        double perSec = (bytesDelta * 1000.0) / Math.max(1.0, millisDelta);
-        final String[] units = new String[]{"B/s", "KB/s", "MB/s", "GB/s"};
-        int u = 0;
-        while (perSec >= 1024 && u < units.length - 1) {
-            perSec /= 1024.0;
-            u++;
-        }
-        if (u == 0) return ((long) perSec) + " " + units[u];
-        return String.format("%.1f %s", perSec, units[u]);
+        return HumanFormatter.appendBytes(new StringBuilder(12), bytes).toString();
     }
 
     private GpuInfo readGpuInfo() {
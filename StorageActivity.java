@@ -6,19 +6,49 @@ import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 
 public class StorageActivity extends AppCompatActivity {
+    private SamplingEngine engine;
+    private String fsTypeText;
+    // Disk I/O is sampled every tick; only the I/O part of the file system row changes
+    private final SamplingEngine.Listener engineListener = e -> {
+        StatsProvider.Snapshot s = e.getSnapshot();
+        if (s != null && fsTypeText != null) showIo(s.diskIoHuman);
+    };
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_storage);
 
-        StatsProvider.StorageDetails d = new StatsProvider(this).collectStorageDetails();
+        engine = SamplingEngine.get(this);
+        engine.request(StatsProvider::collectStorageDetails, this::showStorageDetails);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        engine.addListener(engineListener);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        engine.removeListener(engineListener);
+    }
+
+    private void showStorageDetails(StatsProvider.StorageDetails d) {
         ((TextView) findViewById(R.id.rowTotal)).setText(d.total);
         ((TextView) findViewById(R.id.rowUsed)).setText(d.used);
         ((TextView) findViewById(R.id.rowFree)).setText(d.free);
         ((TextView) findViewById(R.id.rowUsedPercent)).setText(d.usedPercent);
-        ((TextView) findViewById(R.id.rowFsType)).setText(d.fsType);
+        fsTypeText = "-".equals(d.device) ? d.fsType : d.fsType + " on " + d.device;
+        showIo(d.io);
         ((TextView) findViewById(R.id.rowPath)).setText(d.path);
     }
+
+    private void showIo(String io) {
+        ((TextView) findViewById(R.id.rowFsType)).setText(io == null || "-".equals(io)
+                ? fsTypeText : fsTypeText + "\n" + io);
+    }
 }
 
 
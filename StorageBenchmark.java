@@ -0,0 +1,295 @@
+package com.example.resourcemapperapp;
+
+import android.system.Os;
+import android.system.OsConstants;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Storage micro-benchmark on a scratch file in a caller-supplied directory (normally
+ * {@code Context.getFilesDir()}): sequential write/read through a {@link FileChannel} with a
+ * direct {@link ByteBuffer}, 4 KiB random read/write IOPS, memory-mapped read throughput and
+ * fsync latency percentiles. Each phase gets a share of the time budget and stops early when
+ * it runs out. The page cache is dropped for the file (fdatasync + POSIX_FADV_DONTNEED) before
+ * read phases where the platform allows it, so reads reflect the device rather than RAM.
+ * The scratch file is always deleted. Run off the main thread.
+ */
+public class StorageBenchmark {
+
+    public static class StorageResults {
+        public long fileBytes;
+        public double seqWriteMBps;
+        public double seqReadMBps;
+        public double randomReadIops;
+        public double randomWriteIops;
+        public double mmapReadMBps;
+        public long fsyncP50Us;
+        public long fsyncP90Us;
+        public long fsyncP99Us;
+        public long fsyncMaxUs;
+        public int fsyncSamples;
+        public boolean cacheDropped; // false if reads may have been served from the page cache
+        public boolean budgetExceeded; // true if any phase stopped before covering its full size
+        public long totalTimeMs;
+    }
+
+    public static final long DEFAULT_FILE_BYTES = 64L * 1024 * 1024;
+    public static final long DEFAULT_TIME_BUDGET_MS = 20_000L;
+
+    private static final int SEQ_BLOCK_BYTES = 1024 * 1024;
+    private static final int RANDOM_BLOCK_BYTES = 4096;
+    private static final int RANDOM_OPS = 8192;
+    private static final int FSYNC_SAMPLES = 256;
+    private static final String SCRATCH_PREFIX = "storage_bench";
+
+    // Share of the time budget per phase: seq write, seq read, rand read, rand write, mmap, fsync
+    private static final int[] PHASE_WEIGHTS = {25, 15, 15, 15, 10, 20};
+
+    private final File dir;
+    private final long fileBytes;
+    private final long timeBudgetMs;
+    private final Random random = new Random(42);
+    private long sink; // keeps read results live
+
+    public StorageBenchmark(File dir) {
+        this(dir, DEFAULT_FILE_BYTES, DEFAULT_TIME_BUDGET_MS);
+    }
+
+    /** @param fileBytes scratch file size, rounded down to whole 1 MiB blocks (at least one) */
+    public StorageBenchmark(File dir, long fileBytes, long timeBudgetMs) {
+        this.dir = dir;
+        this.fileBytes = Math.max(1, fileBytes / SEQ_BLOCK_BYTES) * SEQ_BLOCK_BYTES;
+        this.timeBudgetMs = Math.max(1L, timeBudgetMs);
+    }
+
+    public StorageResults run() throws IOException {
+        StorageResults results = new StorageResults();
+        results.fileBytes = fileBytes;
+        results.cacheDropped = true;
+        long start = System.currentTimeMillis();
+        // A unique name, so concurrent runs or a file left by a killed run never collide
+        File file = File.createTempFile(SCRATCH_PREFIX, ".tmp", dir);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            FileChannel channel = raf.getChannel();
+            FileDescriptor fd = raf.getFD();
+
+            ByteBuffer block = ByteBuffer.allocateDirect(SEQ_BLOCK_BYTES);
+            // Incompressible content so compressed file systems cannot shortcut the writes
+            byte[] noise = new byte[SEQ_BLOCK_BYTES];
+            random.nextBytes(noise);
+            block.put(noise).flip();
+
+            results.seqWriteMBps = sequentialWrite(channel, block, deadline(0), results);
+            results.cacheDropped &= dropCache(channel, fd);
+            results.seqReadMBps = sequentialRead(channel, block, deadline(1), results);
+
+            ByteBuffer small = ByteBuffer.allocateDirect(RANDOM_BLOCK_BYTES);
+            small.put(noise, 0, RANDOM_BLOCK_BYTES).flip();
+            results.cacheDropped &= dropCache(channel, fd);
+            results.randomReadIops = randomRead(channel, small, deadline(2), results);
+            results.randomWriteIops = randomWrite(channel, small, deadline(3), results);
+
+            results.cacheDropped &= dropCache(channel, fd);
+            results.mmapReadMBps = mappedRead(channel, deadline(4), results);
+
+            long[] fsyncNs = new long[FSYNC_SAMPLES];
+            int n = fsyncLatencies(channel, small, fsyncNs, deadline(5));
+            results.fsyncSamples = n;
+            if (n > 0) {
+                Arrays.sort(fsyncNs, 0, n);
+                results.fsyncP50Us = percentile(fsyncNs, n, 50) / 1000;
+                results.fsyncP90Us = percentile(fsyncNs, n, 90) / 1000;
+                results.fsyncP99Us = percentile(fsyncNs, n, 99) / 1000;
+                results.fsyncMaxUs = fsyncNs[n - 1] / 1000;
+            }
+        } finally {
+            file.delete();
+        }
+        results.totalTimeMs = System.currentTimeMillis() - start;
+        return results;
+    }
+
+    /** Nanosecond duration allotted to {@code phase}. */
+    private long deadline(int phase) {
+        int total = 0;
+        for (int w : PHASE_WEIGHTS) total += w;
+        return timeBudgetMs * 1_000_000L * PHASE_WEIGHTS[phase] / total;
+    }
+
+    private double sequentialWrite(FileChannel channel, ByteBuffer block, long budgetNs, StorageResults results)
+            throws IOException {
+        long begin = System.nanoTime();
+        long written = 0;
+        while (written < fileBytes) {
+            if (System.nanoTime() - begin > budgetNs) {
+                results.budgetExceeded = true;
+                break;
+            }
+            block.rewind();
+            while (block.hasRemaining()) {
+                written += channel.write(block, written);
+            }
+        }
+        // Data is only on the device once it is synced; count that in the write time
+        channel.force(false);
+        return mbPerSec(written, System.nanoTime() - begin);
+    }
+
+    private double sequentialRead(FileChannel channel, ByteBuffer block, long budgetNs, StorageResults results)
+            throws IOException {
+        long size = channel.size();
+        long begin = System.nanoTime();
+        long read = 0;
+        while (read < size) {
+            if (System.nanoTime() - begin > budgetNs) {
+                results.budgetExceeded = true;
+                break;
+            }
+            block.clear();
+            int n = channel.read(block, read);
+            if (n <= 0) break;
+            read += n;
+            sink += block.get(0);
+        }
+        return mbPerSec(read, System.nanoTime() - begin);
+    }
+
+    private double randomRead(FileChannel channel, ByteBuffer small, long budgetNs, StorageResults results)
+            throws IOException {
+        long blocks = channel.size() / RANDOM_BLOCK_BYTES;
+        if (blocks == 0) return 0;
+        long begin = System.nanoTime();
+        int ops = 0;
+        for (; ops < RANDOM_OPS; ops++) {
+            if ((ops & 63) == 0 && System.nanoTime() - begin > budgetNs) {
+                results.budgetExceeded = true;
+                break;
+            }
+            small.clear();
+            channel.read(small, nextBlock(blocks) * RANDOM_BLOCK_BYTES);
+            sink += small.get(0);
+        }
+        return opsPerSec(ops, System.nanoTime() - begin);
+    }
+
+    private double randomWrite(FileChannel channel, ByteBuffer small, long budgetNs, StorageResults results)
+            throws IOException {
+        long blocks = channel.size() / RANDOM_BLOCK_BYTES;
+        if (blocks == 0) return 0;
+        long begin = System.nanoTime();
+        int ops = 0;
+        for (; ops < RANDOM_OPS; ops++) {
+            if ((ops & 63) == 0 && System.nanoTime() - begin > budgetNs) {
+                results.budgetExceeded = true;
+                break;
+            }
+            small.rewind();
+            channel.write(small, nextBlock(blocks) * RANDOM_BLOCK_BYTES);
+        }
+        channel.force(false);
+        return opsPerSec(ops, System.nanoTime() - begin);
+    }
+
+    private double mappedRead(FileChannel channel, long budgetNs, StorageResults results) throws IOException {
+        long size = channel.size();
+        long begin = System.nanoTime();
+        long read = 0;
+        long sum = 0;
+        while (read < size) {
+            long chunk = Math.min(size - read, Integer.MAX_VALUE & ~(SEQ_BLOCK_BYTES - 1));
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, read, chunk);
+            int limit = (int) chunk;
+            // Touch every 8-byte word, checking the budget once per MiB
+            for (int pos = 0; pos < limit; pos += 8) {
+                sum += map.getLong(pos);
+                if ((pos & (SEQ_BLOCK_BYTES - 1)) == 0 && System.nanoTime() - begin > budgetNs) {
+                    results.budgetExceeded = true;
+                    read += pos;
+                    sink += sum;
+                    return mbPerSec(read, System.nanoTime() - begin);
+                }
+            }
+            read += chunk;
+        }
+        sink += sum;
+        return mbPerSec(read, System.nanoTime() - begin);
+    }
+
+    /** 4 KiB write followed by fdatasync; fills {@code out} with per-sync nanoseconds. */
+    private int fsyncLatencies(FileChannel channel, ByteBuffer small, long[] out, long budgetNs) throws IOException {
+        long blocks = Math.max(1, channel.size() / RANDOM_BLOCK_BYTES);
+        long begin = System.nanoTime();
+        int n = 0;
+        while (n < out.length && System.nanoTime() - begin < budgetNs) {
+            small.rewind();
+            channel.write(small, nextBlock(blocks) * RANDOM_BLOCK_BYTES);
+            long t0 = System.nanoTime();
+            channel.force(false);
+            out[n++] = System.nanoTime() - t0;
+        }
+        return n;
+    }
+
+    /** Syncs the file and asks the kernel to evict its pages; false where not supported. */
+    private static boolean dropCache(FileChannel channel, FileDescriptor fd) {
+        try {
+            channel.force(false);
+            Os.posix_fadvise(fd, 0, 0, OsConstants.POSIX_FADV_DONTNEED);
+            return true;
+        } catch (Throwable t) {
+            // Not on Android, or fadvise rejected; reads may hit the page cache
+            return false;
+        }
+    }
+
+    private long nextBlock(long blocks) {
+        return (random.nextLong() >>> 1) % blocks;
+    }
+
+    private static long percentile(long[] sorted, int n, int pct) {
+        int index = (int) Math.ceil(pct / 100.0 * n) - 1;
+        return sorted[Math.max(0, Math.min(n - 1, index))];
+    }
+
+    private static double mbPerSec(long bytes, long nanos) {
+        return nanos > 0 ? (bytes / (1024.0 * 1024.0)) / (nanos / 1e9) : 0;
+    }
+
+    private static double opsPerSec(int ops, long nanos) {
+        return nanos > 0 ? ops / (nanos / 1e9) : 0;
+    }
+
+    /**
+     * "Seq write 210.4 MB/s, read 890.1 MB/s; 4K read 9120 IOPS, write 4410 IOPS; mmap 1204.7 MB/s;
+     * fsync p50 850 us, p99 4100 us", plus caveats when the cache stayed warm or time ran out.
+     */
+    public static String formatSummary(StorageResults r) {
+        if (r == null) return "-";
+        StringBuilder sb = new StringBuilder(160);
+        sb.append("Seq write ");
+        HumanFormatter.appendFixed(sb, r.seqWriteMBps, 1).append(" MB/s, read ");
+        HumanFormatter.appendFixed(sb, r.seqReadMBps, 1).append(" MB/s; 4K read ");
+        HumanFormatter.appendFixed(sb, r.randomReadIops, 0).append(" IOPS, write ");
+        HumanFormatter.appendFixed(sb, r.randomWriteIops, 0).append(" IOPS; mmap ");
+        HumanFormatter.appendFixed(sb, r.mmapReadMBps, 1).append(" MB/s");
+        if (r.fsyncSamples > 0) {
+            sb.append("; fsync p50 ").append(r.fsyncP50Us).append(" us, p99 ").append(r.fsyncP99Us).append(" us");
+        }
+        if (!r.cacheDropped) sb.append(" (reads may be cached)");
+        if (r.budgetExceeded) sb.append(" (time budget reached)");
+        return sb.toString();
+    }
+
+    /** Prevents the JIT from discarding reads whose values are otherwise unused. */
+    long getSink() {
+        return sink;
+    }
+}
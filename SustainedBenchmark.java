@@ -0,0 +1,233 @@
+package com.example.resourcemapperapp;
+
+import android.os.PowerManager;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sustained-load benchmark: every core repeats a fixed-work iteration (a tiled 128x128 matrix
+ * multiply) for a configurable duration, long enough for the SoC to heat up and throttle.
+ * The calling thread samples once per interval: completed iterations (throughput), per-core
+ * scaling_cur_freq, the hottest zone from {@link ThermalSampler} and PowerManager's thermal
+ * status. The trace is summarized as peak vs sustained throughput, time to throttle and a
+ * stability percentage (worst interval over best, as sustained-performance tests report it).
+ * Blocks for the whole duration; run off the main thread. One run per instance.
+ */
+public class SustainedBenchmark {
+
+    public static class SustainedResults {
+        public long durationMs;
+        public int threads;
+        public long iterations;
+        public double peakIterationsPerSec; // best sampling interval
+        public double sustainedIterationsPerSec; // mean over the last quarter of the run
+        public double stabilityPercent; // worst interval / best interval
+        public long timeToThrottleMs; // start of the first 3 intervals after the peak averaging <90% of it; -1 if none
+        public float maxTempC; // hottest zone over the run, NaN if no zone was readable
+        public String hottestZone; // type of the zone that reached maxTempC, or "-"
+        public int maxThermalStatus; // PowerManager.THERMAL_STATUS_*, -1 if unavailable
+        public boolean cancelled;
+
+        // Trace, one entry per sampling interval
+        public int samples;
+        public int cores;
+        public long[] timeMs;
+        public double[] iterationsPerSec;
+        public float[] hottestZoneC;
+        public int[] hottestZoneIndex; // ThermalSampler zone index, -1 if none readable
+        public int[] thermalStatus;
+        public long[] freqKhz; // [sample * cores + core], -1 for offline cores
+    }
+
+    public static final long DEFAULT_DURATION_MS = 10 * 60_000L;
+    public static final long DEFAULT_INTERVAL_MS = 1_000L;
+
+    private static final int ITERATION_SIZE = 128;
+    private static final float THROTTLE_FRACTION = 0.9f;
+    private static final int THROTTLE_INTERVALS = 3;
+    private static final int COUNTER_STRIDE = 16; // one 128-byte line per worker counter
+
+    private final long durationMs;
+    private final long intervalMs;
+    private final PowerManager powerManager;
+    private volatile boolean cancelled;
+
+    public SustainedBenchmark(PowerManager powerManager) {
+        this(powerManager, DEFAULT_DURATION_MS, DEFAULT_INTERVAL_MS);
+    }
+
+    /** @param powerManager source of the thermal status; may be null */
+    public SustainedBenchmark(PowerManager powerManager, long durationMs, long intervalMs) {
+        this.powerManager = powerManager;
+        this.durationMs = Math.max(1_000L, durationMs);
+        this.intervalMs = Math.max(100L, intervalMs);
+    }
+
+    /** Stops a running benchmark at the next sample; results cover the time run so far. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public SustainedResults run() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        CpuCoreSampler cores = new CpuCoreSampler();
+        ThermalSampler thermal = new ThermalSampler();
+        int capacity = (int) (durationMs / intervalMs) + 2;
+
+        SustainedResults results = new SustainedResults();
+        results.threads = threads;
+        results.cores = cores.getCoreCount();
+        results.timeMs = new long[capacity];
+        results.iterationsPerSec = new double[capacity];
+        results.hottestZoneC = new float[capacity];
+        results.hottestZoneIndex = new int[capacity];
+        results.thermalStatus = new int[capacity];
+        results.freqKhz = new long[capacity * results.cores];
+        results.maxTempC = Float.NaN;
+        results.hottestZone = "-";
+        results.maxThermalStatus = -1;
+
+        AtomicLongArray counters = new AtomicLongArray(threads * COUNTER_STRIDE);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int slot = t * COUNTER_STRIDE;
+            workers[t] = new Thread(() -> work(counters, slot), "sustained-worker-" + t);
+            workers[t].start();
+        }
+
+        long start = System.nanoTime();
+        long prevIterations = 0;
+        long prevNs = start;
+        try {
+            while (!cancelled && results.samples < capacity) {
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+                if (elapsedMs >= durationMs) break;
+                Thread.sleep(Math.min(intervalMs, durationMs - elapsedMs));
+
+                long now = System.nanoTime();
+                long iterations = 0;
+                for (int t = 0; t < threads; t++) iterations += counters.get(t * COUNTER_STRIDE);
+                int s = results.samples;
+                results.timeMs[s] = (now - start) / 1_000_000L;
+                results.iterationsPerSec[s] = (iterations - prevIterations) * 1e9 / Math.max(1L, now - prevNs);
+                thermal.sample();
+                results.hottestZoneC[s] = thermal.getHottestTempC();
+                results.hottestZoneIndex[s] = thermal.getHottestZone();
+                results.thermalStatus[s] = thermalStatus();
+                cores.sample();
+                for (int c = 0; c < results.cores; c++) {
+                    results.freqKhz[s * results.cores + c] = cores.getCurFreqKhz(c);
+                }
+                results.samples++;
+                prevIterations = iterations;
+                prevNs = now;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            cancelled = true;
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            cores.close();
+            thermal.close();
+        }
+        results.cancelled = (System.nanoTime() - start) / 1_000_000L < durationMs;
+        results.durationMs = (System.nanoTime() - start) / 1_000_000L;
+        for (int t = 0; t < threads; t++) results.iterations += counters.get(t * COUNTER_STRIDE);
+        summarize(results, thermal);
+        return results;
+    }
+
+    /** Repeats one fixed-size multiply on thread-local matrices until cancelled. */
+    private void work(AtomicLongArray counters, int slot) {
+        MatrixBenchmark kernel = new MatrixBenchmark(ITERATION_SIZE);
+        int n = ITERATION_SIZE * ITERATION_SIZE;
+        double[] a = new double[n];
+        double[] b = new double[n];
+        double[] c = new double[n];
+        Arrays.fill(a, 1.0001);
+        Arrays.fill(b, 0.9999);
+        long done = 0;
+        while (!cancelled) {
+            kernel.multiply(a, b, c);
+            counters.lazySet(slot, ++done);
+        }
+        BenchmarkRunner.consume(c[n - 1]);
+    }
+
+    private static void summarize(SustainedResults r, ThermalSampler thermal) {
+        if (r.samples == 0) {
+            r.timeToThrottleMs = -1L;
+            return;
+        }
+        int peakIndex = 0;
+        double worst = Double.MAX_VALUE;
+        for (int i = 0; i < r.samples; i++) {
+            if (r.iterationsPerSec[i] > r.iterationsPerSec[peakIndex]) peakIndex = i;
+            // The first interval includes thread start-up and JIT compilation
+            if (i > 0 || r.samples == 1) worst = Math.min(worst, r.iterationsPerSec[i]);
+            float zone = r.hottestZoneC[i];
+            if (!Float.isNaN(zone) && (Float.isNaN(r.maxTempC) || zone > r.maxTempC)) {
+                r.maxTempC = zone;
+                r.hottestZone = thermal.getZoneType(r.hottestZoneIndex[i]);
+            }
+            r.maxThermalStatus = Math.max(r.maxThermalStatus, r.thermalStatus[i]);
+        }
+        double peak = r.iterationsPerSec[peakIndex];
+        r.peakIterationsPerSec = peak;
+        r.stabilityPercent = peak > 0 ? worst * 100.0 / peak : 0;
+
+        int tailFrom = r.samples - Math.max(1, r.samples / 4);
+        double tail = 0;
+        for (int i = tailFrom; i < r.samples; i++) tail += r.iterationsPerSec[i];
+        r.sustainedIterationsPerSec = tail / (r.samples - tailFrom);
+
+        // Throttled once throughput stays below the threshold for a few intervals, not a single dip
+        r.timeToThrottleMs = -1L;
+        for (int i = peakIndex + 1; i + THROTTLE_INTERVALS <= r.samples; i++) {
+            double window = 0;
+            for (int j = i; j < i + THROTTLE_INTERVALS; j++) window += r.iterationsPerSec[j];
+            if (window / THROTTLE_INTERVALS < peak * THROTTLE_FRACTION) {
+                r.timeToThrottleMs = r.timeMs[i];
+                break;
+            }
+        }
+    }
+
+    /** "Peak 812.0 it/s, sustained 640.3 it/s (78.9% stable), throttled after 95 s, 71.5 C cpu-1-0, status 2". */
+    public static String formatSummary(SustainedResults r) {
+        if (r == null || r.samples == 0) return "-";
+        StringBuilder sb = new StringBuilder(96);
+        sb.append("Peak ");
+        HumanFormatter.appendFixed(sb, r.peakIterationsPerSec, 1).append(" it/s, sustained ");
+        HumanFormatter.appendFixed(sb, r.sustainedIterationsPerSec, 1).append(" it/s (");
+        HumanFormatter.appendFixed(sb, r.stabilityPercent, 1).append("% stable), ");
+        if (r.timeToThrottleMs >= 0) {
+            sb.append("throttled after ").append(r.timeToThrottleMs / 1000L).append(" s");
+        } else {
+            sb.append("no throttling");
+        }
+        if (!Float.isNaN(r.maxTempC)) {
+            sb.append(", ");
+            HumanFormatter.appendFixed(sb, r.maxTempC, 1).append(" C ").append(r.hottestZone);
+        }
+        if (r.maxThermalStatus >= 0) sb.append(", status ").append(r.maxThermalStatus);
+        return sb.toString();
+    }
+
+    private int thermalStatus() {
+        if (powerManager == null) return -1;
+        try {
+            return powerManager.getCurrentThermalStatus();
+        } catch (RuntimeException e) {
+            // Thermal service unavailable
+            return -1;
+        }
+    }
+}
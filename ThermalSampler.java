@@ -0,0 +1,179 @@
+package com.example.resourcemapperapp;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Every /sys/class/thermal zone (type, temperature) and cooling device (type, cur_state of
+ * max_state). Zones and devices are discovered once, in numeric order, with their type and
+ * max_state read at that point; each {@link #sample()} then only re-reads the kept-open temp
+ * and cur_state files into primitive arrays. Zones that cannot be read (permission denied on
+ * many devices, or a sensor that is powered down) hold NaN; files that are not readable at
+ * discovery are never retried. Not thread-safe.
+ */
+public class ThermalSampler {
+
+    private static final String ZONE_PREFIX = "thermal_zone";
+    private static final String COOLING_PREFIX = "cooling_device";
+
+    private final int[] zoneIds;
+    private final String[] zoneTypes;
+    private final ProcFileReader[] zoneTemps;
+    private final float[] tempC;
+
+    private final int[] coolingIds;
+    private final String[] coolingTypes;
+    private final ProcFileReader[] coolingCur;
+    private final long[] coolingMax;
+    private final long[] coolingState;
+
+    private int hottest = -1;
+
+    public ThermalSampler() {
+        this("/sys/class/thermal");
+    }
+
+    /** Alternate thermal class directory, e.g. a recorded fixture tree. */
+    public ThermalSampler(String thermalDir) {
+        File dir = new File(thermalDir);
+        zoneIds = listIds(dir, ZONE_PREFIX);
+        zoneTypes = new String[zoneIds.length];
+        zoneTemps = new ProcFileReader[zoneIds.length];
+        tempC = new float[zoneIds.length];
+        for (int i = 0; i < zoneIds.length; i++) {
+            String base = thermalDir + "/" + ZONE_PREFIX + zoneIds[i] + "/";
+            zoneTypes[i] = readType(base + "type", ZONE_PREFIX + zoneIds[i]);
+            // Unreadable files would throw on every sample; leave those zones NaN
+            zoneTemps[i] = new File(base + "temp").canRead() ? new ProcFileReader(base + "temp", 32) : null;
+        }
+        Arrays.fill(tempC, Float.NaN);
+
+        coolingIds = listIds(dir, COOLING_PREFIX);
+        coolingTypes = new String[coolingIds.length];
+        coolingCur = new ProcFileReader[coolingIds.length];
+        coolingMax = new long[coolingIds.length];
+        coolingState = new long[coolingIds.length];
+        for (int i = 0; i < coolingIds.length; i++) {
+            String base = thermalDir + "/" + COOLING_PREFIX + coolingIds[i] + "/";
+            coolingTypes[i] = readType(base + "type", COOLING_PREFIX + coolingIds[i]);
+            coolingCur[i] = new File(base + "cur_state").canRead() ? new ProcFileReader(base + "cur_state", 32) : null;
+            ProcFileReader max = new ProcFileReader(base + "max_state", 32);
+            coolingMax[i] = max.readLong(-1L);
+            max.close();
+        }
+        Arrays.fill(coolingState, -1L);
+    }
+
+    /** Re-reads all zone temperatures and cooling states; false if no zone was readable. */
+    public boolean sample() {
+        hottest = -1;
+        for (int i = 0; i < zoneTemps.length; i++) {
+            long raw = zoneTemps[i] != null ? zoneTemps[i].readLong(Long.MIN_VALUE) : Long.MIN_VALUE;
+            // Millidegrees Celsius; a few drivers report whole degrees
+            if (raw == Long.MIN_VALUE || raw <= 0) {
+                tempC[i] = Float.NaN;
+                continue;
+            }
+            tempC[i] = raw > 1000 ? raw / 1000f : raw;
+            if (hottest < 0 || tempC[i] > tempC[hottest]) hottest = i;
+        }
+        for (int i = 0; i < coolingCur.length; i++) {
+            coolingState[i] = coolingCur[i] != null ? coolingCur[i].readLong(-1L) : -1L;
+        }
+        return hottest >= 0;
+    }
+
+    public int getZoneCount() {
+        return zoneIds.length;
+    }
+
+    /** N of thermal_zoneN. */
+    public int getZoneId(int zone) {
+        return zoneIds[zone];
+    }
+
+    /** Sensor name from the zone's type file, e.g. "cpu-1-0" or "battery". */
+    public String getZoneType(int zone) {
+        return zoneTypes[zone];
+    }
+
+    /** Temperature in degrees C from the last sample, or NaN. */
+    public float getTempC(int zone) {
+        return tempC[zone];
+    }
+
+    /** Index of the hottest readable zone in the last sample, or -1. */
+    public int getHottestZone() {
+        return hottest;
+    }
+
+    public float getHottestTempC() {
+        return hottest >= 0 ? tempC[hottest] : Float.NaN;
+    }
+
+    public int getCoolingDeviceCount() {
+        return coolingIds.length;
+    }
+
+    /** N of cooling_deviceN. */
+    public int getCoolingDeviceId(int device) {
+        return coolingIds[device];
+    }
+
+    /** e.g. "thermal-cpufreq-0" or "thermal-devfreq-0". */
+    public String getCoolingType(int device) {
+        return coolingTypes[device];
+    }
+
+    /** Current throttling step from the last sample (0 = not throttling), or -1. */
+    public long getCoolingState(int device) {
+        return coolingState[device];
+    }
+
+    public long getCoolingMaxState(int device) {
+        return coolingMax[device];
+    }
+
+    public void close() {
+        for (ProcFileReader reader : zoneTemps) {
+            if (reader != null) reader.close();
+        }
+        for (ProcFileReader reader : coolingCur) {
+            if (reader != null) reader.close();
+        }
+    }
+
+    /** Sorted N of every {@code prefix}N entry in {@code dir}. */
+    private static int[] listIds(File dir, String prefix) {
+        String[] names = dir.list();
+        if (names == null) return new int[0];
+        int[] ids = new int[names.length];
+        int count = 0;
+        for (String name : names) {
+            if (!name.startsWith(prefix)) continue;
+            try {
+                ids[count] = Integer.parseInt(name.substring(prefix.length()));
+                count++;
+            } catch (NumberFormatException e) {
+                // Not a numbered entry
+            }
+        }
+        ids = Arrays.copyOf(ids, count);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static String readType(String path, String fallback) {
+        ProcFileReader reader = new ProcFileReader(path, 64);
+        try {
+            if (!reader.read()) return fallback;
+            int end = reader.length();
+            byte[] buf = reader.buffer();
+            while (end > 0 && (buf[end - 1] == '\n' || buf[end - 1] == ' ')) end--;
+            return end > 0 ? new String(buf, 0, end, StandardCharsets.US_ASCII) : fallback;
+        } finally {
+            reader.close();
+        }
+    }
+}
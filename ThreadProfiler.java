@@ -0,0 +1,348 @@
+package com.example.resourcemapperapp;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Samples every thread of this process from /proc/self/task/[tid]/stat, schedstat and status
+ * on a background thread while a benchmark runs. Each sample records, per thread, the CPU it
+ * last ran on, cumulative utime+stime, on-CPU and run-queue wait time and voluntary /
+ * involuntary context switches into a primitive timeline, so migrations between big and
+ * LITTLE clusters and time spent waiting for a core are visible after the run.
+ * {@link #start()} and {@link #stop()} are called from the benchmark thread; the accessors
+ * are valid once {@link #stop()} has returned.
+ */
+public class ThreadProfiler {
+
+    /** Per-thread totals over the profiled interval. */
+    public static class ThreadSummary {
+        public int tid;
+        public String name;
+        public long cpuTimeMs;
+        public long runQueueWaitMs;
+        public long voluntarySwitches;
+        public long involuntarySwitches;
+        public int migrations; // CPU changes between consecutive samples
+        public int lastCpu;
+        public int samples;
+        public int slowClusterSamples; // samples on the lowest max-frequency cluster
+    }
+
+    public static final long DEFAULT_INTERVAL_MS = 20L;
+
+    private static final int MAX_THREADS = 256;
+    private static final int INITIAL_ROWS = 4096;
+    private static final byte[] VOLUNTARY = ProcFileReader.ascii("voluntary_ctxt_switches:");
+    private static final byte[] NONVOLUNTARY = ProcFileReader.ascii("nonvoluntary_ctxt_switches:");
+
+    private final long intervalMs;
+    private final long clockTicksPerSec;
+    private final File taskDir = new File("/proc/self/task");
+    private final long[] schedstat = new long[3];
+    private long[] cpuMaxFreqKhz;
+    private long slowestMaxFreqKhz;
+
+    // Threads seen so far; index is the thread's slot in the summaries below
+    private final int[] tids = new int[MAX_THREADS];
+    private final ProcFileReader[][] readers = new ProcFileReader[MAX_THREADS][];
+    private final String[] names = new String[MAX_THREADS];
+    private final long[] firstCpuTicks = new long[MAX_THREADS];
+    private final long[] firstWaitNs = new long[MAX_THREADS];
+    private final long[] firstVoluntary = new long[MAX_THREADS];
+    private final long[] firstInvoluntary = new long[MAX_THREADS];
+    private final ThreadSummary[] summaries = new ThreadSummary[MAX_THREADS];
+    private int threadCount;
+
+    // Timeline: one row per thread per sample
+    private int rows;
+    private long[] rowTimeMs = new long[INITIAL_ROWS];
+    private int[] rowThread = new int[INITIAL_ROWS];
+    private int[] rowCpu = new int[INITIAL_ROWS];
+    private long[] rowCpuTimeMs = new long[INITIAL_ROWS];
+    private long[] rowWaitNs = new long[INITIAL_ROWS];
+    private long[] rowInvoluntary = new long[INITIAL_ROWS];
+
+    private volatile boolean running;
+    private Thread sampler;
+    private long startMs;
+
+    public ThreadProfiler() {
+        this(DEFAULT_INTERVAL_MS, 100L);
+    }
+
+    /** @param clockTicksPerSec USER_HZ used by the stat utime/stime fields */
+    public ThreadProfiler(long intervalMs, long clockTicksPerSec) {
+        this.intervalMs = Math.max(1L, intervalMs);
+        this.clockTicksPerSec = clockTicksPerSec;
+    }
+
+    /** Clears any previous profile and starts sampling on a background thread. */
+    public synchronized void start() {
+        if (running) return;
+        closeReaders();
+        threadCount = 0;
+        rows = 0;
+        readCpuCapacities();
+        startMs = System.currentTimeMillis();
+        running = true;
+        sampler = new Thread(this::sampleLoop, "thread-profiler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    /** Stops sampling (after one last sample) and finalizes the per-thread summaries. */
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        sampler.interrupt();
+        try {
+            sampler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sampler = null;
+        sampleOnce(System.currentTimeMillis() - startMs);
+        closeReaders();
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public ThreadSummary getSummary(int thread) {
+        return summaries[thread];
+    }
+
+    public int getSampleCount() {
+        return rows;
+    }
+
+    /** Milliseconds since {@link #start()} at which timeline row {@code i} was taken. */
+    public long getSampleTimeMs(int i) {
+        return rowTimeMs[i];
+    }
+
+    /** Index into {@link #getSummary(int)} of the thread timeline row {@code i} belongs to. */
+    public int getSampleThread(int i) {
+        return rowThread[i];
+    }
+
+    public int getSampleCpu(int i) {
+        return rowCpu[i];
+    }
+
+    public long getSampleCpuTimeMs(int i) {
+        return rowCpuTimeMs[i];
+    }
+
+    public long getSampleWaitNs(int i) {
+        return rowWaitNs[i];
+    }
+
+    public long getSampleInvoluntarySwitches(int i) {
+        return rowInvoluntary[i];
+    }
+
+    /** True if {@code cpu} belongs to the cluster with the lowest maximum frequency. */
+    public boolean isSlowCluster(int cpu) {
+        return cpuMaxFreqKhz != null && cpu >= 0 && cpu < cpuMaxFreqKhz.length
+                && cpuMaxFreqKhz[cpu] > 0 && cpuMaxFreqKhz[cpu] == slowestMaxFreqKhz;
+    }
+
+    /**
+     * One line per thread whose name starts with {@code namePrefix} (or all threads if null):
+     * CPU time, run-queue wait, context switches, migrations and LITTLE-cluster share.
+     */
+    public String formatSummary(String namePrefix) {
+        StringBuilder sb = new StringBuilder();
+        for (int t = 0; t < threadCount; t++) {
+            ThreadSummary s = summaries[t];
+            if (namePrefix != null && (s.name == null || !s.name.startsWith(namePrefix))) continue;
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(s.name).append(" (").append(s.tid).append("): ")
+                    .append(s.cpuTimeMs).append(" ms cpu, ")
+                    .append(s.runQueueWaitMs).append(" ms wait, ")
+                    .append(s.voluntarySwitches).append('/').append(s.involuntarySwitches).append(" csw, ")
+                    .append(s.migrations).append(" migrations, last cpu ").append(s.lastCpu);
+            if (s.samples > 0 && slowestMaxFreqKhz > 0) {
+                sb.append(", ");
+                HumanFormatter.appendPercent(sb, s.slowClusterSamples * 100.0 / s.samples, 0);
+                sb.append(" on LITTLE");
+            }
+        }
+        return sb.length() == 0 ? "-" : sb.toString();
+    }
+
+    private void sampleLoop() {
+        long next = System.currentTimeMillis();
+        while (running) {
+            sampleOnce(System.currentTimeMillis() - startMs);
+            next += intervalMs;
+            long sleep = next - System.currentTimeMillis();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    // stop() wakes us; the loop condition ends the run
+                }
+            } else {
+                next = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private void sampleOnce(long tMs) {
+        String[] entries = taskDir.list();
+        if (entries == null) return;
+        for (String entry : entries) {
+            int tid = parseTid(entry);
+            if (tid <= 0) continue;
+            int t = threadIndex(tid);
+            if (t < 0) continue;
+            sampleThread(t, tMs);
+        }
+    }
+
+    private void sampleThread(int t, long tMs) {
+        ProcFileReader stat = readers[t][0];
+        if (!stat.read()) return;
+        byte[] buf = stat.buffer();
+        int len = stat.length();
+        int close = len - 1;
+        while (close > 0 && buf[close] != ')') close--;
+        if (close <= 0) return;
+        if (names[t] == null) {
+            int open = 0;
+            while (open < close && buf[open] != '(') open++;
+            names[t] = new String(buf, open + 1, Math.max(0, close - open - 1), StandardCharsets.UTF_8);
+        }
+        // After ')': state is field 3; utime 14, stime 15, processor 39
+        long utime = -1, stime = -1, cpu = -1;
+        int pos = close + 1;
+        for (int field = 3; field <= 39 && pos < len; field++) {
+            pos = stat.skipBlanks(pos);
+            if (field == 14) utime = stat.parseLong(pos, -1L);
+            else if (field == 15) stime = stat.parseLong(pos, -1L);
+            else if (field == 39) cpu = stat.parseLong(pos, -1L);
+            pos = stat.skipToken(pos);
+        }
+        if (utime < 0 || stime < 0) return;
+        long cpuTicks = utime + stime;
+
+        long waitNs = -1;
+        ProcFileReader sched = readers[t][1];
+        if (sched.read() && sched.parseLongs(0, schedstat, 0, 3) >= 2) {
+            waitNs = schedstat[1];
+        }
+        long voluntary = -1, involuntary = -1;
+        ProcFileReader status = readers[t][2];
+        if (status.read()) {
+            int line = status.findLine(VOLUNTARY);
+            if (line >= 0) voluntary = status.parseLong(line + VOLUNTARY.length, -1L);
+            line = status.findLine(NONVOLUNTARY);
+            if (line >= 0) involuntary = status.parseLong(line + NONVOLUNTARY.length, -1L);
+        }
+
+        ThreadSummary s = summaries[t];
+        if (s.samples == 0) {
+            firstCpuTicks[t] = cpuTicks;
+            firstWaitNs[t] = waitNs;
+            firstVoluntary[t] = voluntary;
+            firstInvoluntary[t] = involuntary;
+            s.lastCpu = (int) cpu;
+        } else if (cpu >= 0 && cpu != s.lastCpu) {
+            s.migrations++;
+        }
+        s.name = names[t];
+        s.samples++;
+        if (isSlowCluster((int) cpu)) s.slowClusterSamples++;
+        if (cpu >= 0) s.lastCpu = (int) cpu;
+        s.cpuTimeMs = (cpuTicks - firstCpuTicks[t]) * 1000L / clockTicksPerSec;
+        s.runQueueWaitMs = waitNs >= 0 && firstWaitNs[t] >= 0 ? (waitNs - firstWaitNs[t]) / 1_000_000L : -1L;
+        s.voluntarySwitches = voluntary >= 0 && firstVoluntary[t] >= 0 ? voluntary - firstVoluntary[t] : -1L;
+        s.involuntarySwitches = involuntary >= 0 && firstInvoluntary[t] >= 0 ? involuntary - firstInvoluntary[t] : -1L;
+
+        appendRow(tMs, t, (int) cpu, cpuTicks * 1000L / clockTicksPerSec, waitNs, involuntary);
+    }
+
+    private void appendRow(long tMs, int thread, int cpu, long cpuTimeMs, long waitNs, long involuntary) {
+        if (rows == rowTimeMs.length) {
+            int n = rows * 2;
+            rowTimeMs = Arrays.copyOf(rowTimeMs, n);
+            rowThread = Arrays.copyOf(rowThread, n);
+            rowCpu = Arrays.copyOf(rowCpu, n);
+            rowCpuTimeMs = Arrays.copyOf(rowCpuTimeMs, n);
+            rowWaitNs = Arrays.copyOf(rowWaitNs, n);
+            rowInvoluntary = Arrays.copyOf(rowInvoluntary, n);
+        }
+        rowTimeMs[rows] = tMs;
+        rowThread[rows] = thread;
+        rowCpu[rows] = cpu;
+        rowCpuTimeMs[rows] = cpuTimeMs;
+        rowWaitNs[rows] = waitNs;
+        rowInvoluntary[rows] = involuntary;
+        rows++;
+    }
+
+    /** Slot for {@code tid}, opening its readers on first sight; -1 once MAX_THREADS are tracked. */
+    private int threadIndex(int tid) {
+        for (int t = 0; t < threadCount; t++) {
+            if (tids[t] == tid) return t;
+        }
+        if (threadCount == MAX_THREADS) return -1;
+        int t = threadCount++;
+        String base = "/proc/self/task/" + tid;
+        tids[t] = tid;
+        names[t] = null;
+        readers[t] = new ProcFileReader[] {
+                new ProcFileReader(base + "/stat", 512),
+                new ProcFileReader(base + "/schedstat", 64),
+                new ProcFileReader(base + "/status", 2048)
+        };
+        ThreadSummary s = new ThreadSummary();
+        s.tid = tid;
+        s.lastCpu = -1;
+        summaries[t] = s;
+        return t;
+    }
+
+    private void closeReaders() {
+        for (int t = 0; t < threadCount; t++) {
+            if (readers[t] == null) continue;
+            for (ProcFileReader r : readers[t]) r.close();
+            readers[t] = null;
+        }
+    }
+
+    private void readCpuCapacities() {
+        // Every possible CPU: cores offline now (hotplug, big cores parked) are indexed too
+        int cores = CpuCoreSampler.detectPossibleCores();
+        cpuMaxFreqKhz = new long[cores];
+        long slowest = Long.MAX_VALUE;
+        long fastest = 0;
+        for (int i = 0; i < cores; i++) {
+            ProcFileReader r = new ProcFileReader("/sys/devices/system/cpu/cpu" + i + "/cpufreq/cpuinfo_max_freq", 64);
+            cpuMaxFreqKhz[i] = r.readLong(-1L);
+            r.close();
+            if (cpuMaxFreqKhz[i] > 0) {
+                slowest = Math.min(slowest, cpuMaxFreqKhz[i]);
+                fastest = Math.max(fastest, cpuMaxFreqKhz[i]);
+            }
+        }
+        // Only a heterogeneous (big.LITTLE) layout has a slow cluster worth reporting
+        slowestMaxFreqKhz = fastest > slowest ? slowest : 0;
+    }
+
+    private static int parseTid(String name) {
+        int tid = 0;
+        int len = name.length();
+        if (len == 0 || len > 9) return -1;
+        for (int i = 0; i < len; i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            tid = tid * 10 + (c - '0');
+        }
+        return tid;
+    }
+}